@@ -1,6 +1,7 @@
 package org.figuramc.figura.animation;
 
 import org.figuramc.figura.avatar.Avatar;
+import org.figuramc.figura.lua.FiguraLuaRuntime;
 import org.figuramc.figura.lua.LuaNotNil;
 import org.figuramc.figura.lua.LuaWhitelist;
 import org.figuramc.figura.lua.docs.LuaFieldDoc;
@@ -32,6 +33,14 @@ public class Animation {
     protected final List<Map.Entry<FiguraModelPart, List<Animation.AnimationChannel>>> animationParts = new ArrayList<>();
     private final Map<Float, String> codeFrames = new HashMap<>();
 
+    // sorted view of the code frames, with their functions compiled lazily per runtime
+    private float[] codeTimes = new float[0];
+    private String[] codeSources = new String[0];
+    private LuaValue[] codeFunctions = new LuaValue[0];
+    private FiguraLuaRuntime codeRuntime;
+    // set when code frames are added, so the sorted view is only rebuilt once they are played
+    private boolean codeDirty;
+
     // -- player variables -- // 
 
     private final TimeController controller = new TimeController();
@@ -119,7 +128,10 @@ public class Animation {
     }
 
     public void playCode(float minTime, float maxTime) {
-        if (owner.luaRuntime == null || codeFrames.keySet().isEmpty())
+        if (codeDirty)
+            rebuildCodeFrames();
+
+        if (owner.luaRuntime == null || codeTimes.length == 0)
             return;
 
         if (maxTime < minTime) {
@@ -128,18 +140,63 @@ public class Animation {
             minTime = offset;
         }
 
-        for (Float codeTime : codeFrames.keySet()) {
-            if (codeTime >= minTime && codeTime < maxTime) {
-                try {
-                    LuaValue value = owner.loadScript("animations." + modelName + "." + name, codeFrames.get(codeTime));
-                    owner.run(value, owner.animation, this);
-                } catch (Exception e) {
+        // the runtime was rebuilt, so the compiled functions are no longer valid
+        if (codeRuntime != owner.luaRuntime) {
+            codeRuntime = owner.luaRuntime;
+            Arrays.fill(codeFunctions, null);
+        }
+
+        // keep local references, as code frames might be changed by the code itself
+        float[] times = codeTimes;
+        String[] sources = codeSources;
+        LuaValue[] functions = codeFunctions;
+
+        for (int i = findCodeIndex(times, minTime); i < times.length && times[i] < maxTime; i++) {
+            try {
+                LuaValue value = functions[i];
+                if (value == null)
+                    value = functions[i] = owner.loadScript("animations." + modelName + "." + name, sources[i]);
+                owner.run(value, owner.animation, this);
+            } catch (Exception e) {
+                if (owner.luaRuntime != null)
                     owner.luaRuntime.error(e);
-                }
+                return;
             }
         }
     }
 
+    // returns the index of the first code frame with time greater than or equal to the given time
+    private static int findCodeIndex(float[] times, float time) {
+        int low = 0;
+        int high = times.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < time)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    private void rebuildCodeFrames() {
+        int size = codeFrames.size();
+        float[] times = new float[size];
+        int i = 0;
+        for (Float time : codeFrames.keySet())
+            times[i++] = time;
+        Arrays.sort(times);
+
+        String[] sources = new String[size];
+        for (i = 0; i < size; i++)
+            sources[i] = codeFrames.get(times[i]);
+
+        codeTimes = times;
+        codeSources = sources;
+        codeFunctions = new LuaValue[size];
+        codeDirty = false;
+    }
+
 
     // -- lua methods -- // 
 
@@ -275,6 +332,7 @@ public class Animation {
     )
     public Animation newCode(float time, @LuaNotNil String data) {
         codeFrames.put(Math.max(time, 0f), data);
+        codeDirty = true;
         return this;
     }
 
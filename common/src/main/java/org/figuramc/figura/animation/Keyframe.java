@@ -3,6 +3,7 @@ package org.figuramc.figura.animation;
 import com.mojang.datafixers.util.Pair;
 import org.figuramc.figura.FiguraMod;
 import org.figuramc.figura.avatar.Avatar;
+import org.figuramc.figura.lua.FiguraLuaRuntime;
 import org.figuramc.figura.math.vector.FiguraVec3;
 import org.luaj.vm2.LuaError;
 import org.luaj.vm2.LuaValue;
@@ -15,7 +16,7 @@ public class Keyframe implements Comparable<Keyframe> {
     private final float time;
     private final Interpolation interpolation;
     private final FiguraVec3 targetA, targetB;
-    private final String[] aCode, bCode;
+    private final KeyframeValue[] aCode, bCode;
     private final String chunkName;
     private final FiguraVec3 bezierLeft, bezierRight;
     private final FiguraVec3 bezierLeftTime, bezierRightTime;
@@ -27,9 +28,9 @@ public class Keyframe implements Comparable<Keyframe> {
         this.interpolation = interpolation;
         this.targetA = a.getFirst();
         this.targetB = b.getFirst();
-        this.aCode = a.getSecond();
-        this.bCode = b.getSecond();
         this.chunkName = animation.getName() + " keyframe (" + time + "s)";
+        this.aCode = parseCode(a.getSecond());
+        this.bCode = parseCode(b.getSecond());
         this.bezierLeft = bezierLeft;
         this.bezierRight = bezierRight;
         this.bezierLeftTime = bezierLeftTime;
@@ -37,50 +38,93 @@ public class Keyframe implements Comparable<Keyframe> {
     }
 
     public FiguraVec3 getTargetA(float delta) {
-        return targetA != null ? targetA.copy() : FiguraVec3.of(parseStringData(aCode[0], delta), parseStringData(aCode[1], delta), parseStringData(aCode[2], delta));
+        return targetA != null ? targetA.copy() : FiguraVec3.of(aCode[0].get(delta), aCode[1].get(delta), aCode[2].get(delta));
     }
 
     public FiguraVec3 getTargetB(float delta) {
-        return targetB != null ? targetB.copy() : FiguraVec3.of(parseStringData(bCode[0], delta), parseStringData(bCode[1], delta), parseStringData(bCode[2], delta));
+        return targetB != null ? targetB.copy() : FiguraVec3.of(bCode[0].get(delta), bCode[1].get(delta), bCode[2].get(delta));
     }
 
-    private float parseStringData(String data, float delta) {
-        FiguraMod.pushProfiler(data);
-        try {
-            return FiguraMod.popReturnProfiler(Float.parseFloat(data));
-        } catch (Exception ignored) {
-            if (data == null)
-                return FiguraMod.popReturnProfiler(0f);
+    private KeyframeValue[] parseCode(String[] code) {
+        if (code == null)
+            return null;
 
+        KeyframeValue[] values = new KeyframeValue[code.length];
+        for (int i = 0; i < code.length; i++)
+            values[i] = new KeyframeValue(code[i]);
+        return values;
+    }
+
+    // a single keyframe channel value
+    // constants are parsed once, while expressions are compiled once per lua runtime
+    private class KeyframeValue {
+
+        private final String data;
+        private final boolean constant;
+        private final float value;
+
+        private FiguraLuaRuntime runtime;
+        private LuaValue function;
+
+        private KeyframeValue(String data) {
+            this.data = data;
+
+            float value = 0f;
+            boolean constant = true;
+            if (data != null) {
+                try {
+                    value = Float.parseFloat(data);
+                } catch (Exception ignored) {
+                    constant = false;
+                }
+            }
+
+            this.value = value;
+            this.constant = constant;
+        }
+
+        private float get(float delta) {
+            if (constant)
+                return value;
+
+            FiguraMod.pushProfiler(data);
             try {
-                LuaValue val = owner.loadScript(chunkName, "return " + data);
+                LuaValue val = getFunction();
                 if (val == null)
                     return FiguraMod.popReturnProfiler(0f);
 
                 Varargs args = owner.run(val, owner.animation, delta, animation);
+                if (args == null)
+                    return FiguraMod.popReturnProfiler(0f);
                 if (args.isnumber(1))
                     return FiguraMod.popReturnProfiler(args.tofloat(1));
-                else
-                    throw new Exception(); // dummy exception
-            } catch (Exception ignored2) {
+
+                throw new LuaError("Failed to parse data from [" + chunkName + "], expected number, but got " + args.arg(1).typename());
+            } catch (Exception e) {
+                if (owner.luaRuntime != null)
+                    owner.luaRuntime.error(e);
+            }
+
+            return FiguraMod.popReturnProfiler(0f);
+        }
+
+        private LuaValue getFunction() {
+            // the runtime was rebuilt, so the old function is no longer valid
+            if (runtime != owner.luaRuntime) {
+                runtime = owner.luaRuntime;
+                function = null;
+            }
+
+            if (function == null && runtime != null) {
                 try {
-                    LuaValue val = owner.loadScript(chunkName, data);
-                    if (val == null)
-                        return FiguraMod.popReturnProfiler(0f);
-
-                    Varargs args = owner.run(val, owner.animation, delta, animation);
-                    if (args.isnumber(1))
-                        return FiguraMod.popReturnProfiler(args.tofloat(1));
-                    else
-                        throw new LuaError("Failed to parse data from [" + this.chunkName + "], expected number, but got " + args.arg(1).typename());
-                } catch (Exception e) {
-                    if (owner.luaRuntime != null)
-                        owner.luaRuntime.error(e);
+                    function = owner.loadScript(chunkName, "return " + data);
+                } catch (Exception ignored) {
+                    function = owner.loadScript(chunkName, data);
                 }
             }
-        }
 
-        return FiguraMod.popReturnProfiler(0f);
+            return function;
+        }
     }
 
     public float getTime() {
@@ -38,6 +38,7 @@ import org.figuramc.figura.lua.FiguraLuaRuntime;
 import org.figuramc.figura.lua.api.TextureAPI;
 import org.figuramc.figura.lua.api.data.FiguraBuffer;
 import org.figuramc.figura.lua.api.entity.EntityAPI;
+import org.figuramc.figura.lua.api.event.EventsAPI.EventType;
 import org.figuramc.figura.lua.api.particle.ParticleAPI;
 import org.figuramc.figura.lua.api.ping.PingArg;
 import org.figuramc.figura.lua.api.ping.PingFunction;
@@ -57,6 +58,7 @@ import org.figuramc.figura.model.rendering.PartFilterScheme;
 import org.figuramc.figura.model.rendering.texture.FiguraTexture;
 import org.figuramc.figura.permissions.PermissionManager;
 import org.figuramc.figura.permissions.PermissionPack;
+import org.figuramc.figura.permissions.PermissionSet;
 import org.figuramc.figura.permissions.Permissions;
 import org.figuramc.figura.utils.ColorUtils;
 import org.figuramc.figura.utils.EntityUtils;
@@ -121,10 +123,12 @@ public class Avatar {
     // runtime status
     public boolean hasTexture, scriptError;
     public Component errorText;
-    public Set<Permissions> noPermissions = new HashSet<>();
-    public Set<Permissions> permissionsToTick = new HashSet<>();
+    public Set<Permissions> noPermissions = new PermissionSet();
+    public Set<Permissions> permissionsToTick = new PermissionSet();
     public int lastPlayingSound = 0;
     public int versionStatus = 0;
+    // bytes of texture data sent to the gpu during the current and the last frame
+    public long textureUploadBytes, lastTextureUploadBytes;
 
     // limits
     public int animationComplexity;
@@ -233,7 +237,7 @@ public class Avatar {
             Entity entity = EntityUtils.getEntityByUUID(owner);
             if (entity != null) {
                 luaRuntime.setUser(entity);
-                run("ENTITY_INIT", init.post());
+                run(EventType.ENTITY_INIT, init.post());
             }
         }
 
@@ -259,7 +263,7 @@ public class Avatar {
         // call events
         FiguraMod.pushProfiler("worldTick");
         worldTick.reset(permissions.get(Permissions.WORLD_TICK_INST));
-        run("WORLD_TICK", worldTick);
+        run(EventType.WORLD_TICK, worldTick);
 
         FiguraMod.popPushProfiler("tick");
         tick.reset(permissions.get(Permissions.TICK_INST));
@@ -269,6 +273,9 @@ public class Avatar {
     }
 
     public void render(float delta) {
+        lastTextureUploadBytes = textureUploadBytes;
+        textureUploadBytes = 0;
+
         if (complexity.remaining <= 0) {
             noPermissions.add(Permissions.COMPLEXITY);
         } else {
@@ -282,7 +289,7 @@ public class Avatar {
 
         render.reset(permissions.get(Permissions.RENDER_INST));
         worldRender.reset(permissions.get(Permissions.WORLD_RENDER_INST));
-        run("WORLD_RENDER", worldRender, delta);
+        run(EventType.WORLD_RENDER, worldRender, delta);
     }
 
     public void runPing(int id, byte[] data) {
@@ -355,17 +362,17 @@ public class Avatar {
 
     public void tickEvent() {
         if (loaded && luaRuntime != null && luaRuntime.getUser() != null)
-            run("TICK", tick);
+            run(EventType.TICK, tick);
     }
 
     public void renderEvent(float delta, FiguraMat4 poseMatrix) {
         if (loaded && luaRuntime != null && luaRuntime.getUser() != null)
-            run("RENDER", render, delta, renderMode.name(), poseMatrix);
+            run(EventType.RENDER, render, delta, renderMode.name(), poseMatrix);
     }
 
     public void postRenderEvent(float delta, FiguraMat4 poseMatrix) {
         if (loaded && luaRuntime != null && luaRuntime.getUser() != null)
-            run("POST_RENDER", render.post(), delta, renderMode.name(), poseMatrix);
+            run(EventType.POST_RENDER, render.post(), delta, renderMode.name(), poseMatrix);
         renderMode = EntityRenderMode.OTHER;
     }
 
@@ -376,30 +383,30 @@ public class Avatar {
         if (renderer != null)
             renderer.allowMatrixUpdate = false;
 
-        run("POST_WORLD_RENDER", worldRender.post(), delta);
+        run(EventType.POST_WORLD_RENDER, worldRender.post(), delta);
     }
 
     public boolean skullRenderEvent(float delta, BlockStateAPI block, ItemStackAPI item, EntityAPI<?> entity, String mode) {
         Varargs result = null;
         if (loaded && renderer != null && renderer.interceptRendersIntoFigura)
-            result = run("SKULL_RENDER", render, delta, block, item, entity, mode);
+            result = run(EventType.SKULL_RENDER, render, delta, block, item, entity, mode);
         return isCancelled(result);
     }
 
     public boolean useItemEvent(ItemStackAPI stack, String type, int particleCount) {
-        Varargs result = loaded ? run("USE_ITEM", tick, stack, type, particleCount) : null;
+        Varargs result = loaded ? run(EventType.USE_ITEM, tick, stack, type, particleCount) : null;
         return isCancelled(result);
     }
 
     public boolean arrowRenderEvent(float delta, EntityAPI<?> arrow) {
         Varargs result = null;
-        if (loaded) result = run("ARROW_RENDER", render, delta, arrow);
+        if (loaded) result = run(EventType.ARROW_RENDER, render, delta, arrow);
         return isCancelled(result);
     }
 
     public boolean tridentRenderEvent(float delta, EntityAPI<?> trident) {
         Varargs result = null;
-        if (loaded) result = run("TRIDENT_RENDER", render, delta, trident);
+        if (loaded) result = run(EventType.TRIDENT_RENDER, render, delta, trident);
         return isCancelled(result);
     }
 
@@ -407,7 +414,7 @@ public class Avatar {
         if (!loaded || renderer == null || !renderer.interceptRendersIntoFigura) {
             return false;
         }
-        Varargs result = run("ITEM_RENDER", render, item, mode, pos, rot, scale, leftHanded);
+        Varargs result = run(EventType.ITEM_RENDER, render, item, mode, pos, rot, scale, leftHanded);
 
         if(result == null)
             return false;
@@ -422,23 +429,23 @@ public class Avatar {
 
     public boolean playSoundEvent(String id, FiguraVec3 pos, float vol, float pitch, boolean loop, String category, String file) {
         Varargs result = null;
-        if (loaded) result = run("ON_PLAY_SOUND", tick, id, pos, vol, pitch, loop, category, file);
+        if (loaded) result = run(EventType.ON_PLAY_SOUND, tick, id, pos, vol, pitch, loop, category, file);
         return isCancelled(result);
     }
 
     public void resourceReloadEvent() {
-        if (loaded) run("RESOURCE_RELOAD", tick);
+        if (loaded) run(EventType.RESOURCE_RELOAD, tick);
     }
 
     // -- host only events -- // 
 
     public String chatSendMessageEvent(String message) { // piped event
-        Varargs val = loaded ? run("CHAT_SEND_MESSAGE", tick, message) : null;
+        Varargs val = loaded ? run(EventType.CHAT_SEND_MESSAGE, tick, message) : null;
         return val == null || (!val.isnil(1) && !Configs.CHAT_MESSAGES.value) ? message : val.isnil(1) ? "" : val.arg(1).tojstring();
     }
 
     public Pair<String, Integer> chatReceivedMessageEvent(String message, String json) { // special case
-        Varargs val = loaded ? run("CHAT_RECEIVE_MESSAGE", tick, message, json) : null;
+        Varargs val = loaded ? run(EventType.CHAT_RECEIVE_MESSAGE, tick, message, json) : null;
         if (val == null)
             return null;
 
@@ -454,27 +461,27 @@ public class Avatar {
     }
 
     public boolean mouseScrollEvent(double delta) {
-        Varargs result = loaded ? run("MOUSE_SCROLL", tick, delta) : null;
+        Varargs result = loaded ? run(EventType.MOUSE_SCROLL, tick, delta) : null;
         return isCancelled(result);
     }
 
     public boolean mouseMoveEvent(double x, double y) {
-        Varargs result = loaded ? run("MOUSE_MOVE", tick, x, y) : null;
+        Varargs result = loaded ? run(EventType.MOUSE_MOVE, tick, x, y) : null;
         return isCancelled(result);
     }
 
     public boolean mousePressEvent(int button, int action, int modifiers) {
-        Varargs result = loaded ? run("MOUSE_PRESS", tick, button, action, modifiers) : null;
+        Varargs result = loaded ? run(EventType.MOUSE_PRESS, tick, button, action, modifiers) : null;
         return isCancelled(result);
     }
 
     public boolean keyPressEvent(int key, int action, int modifiers) {
-        Varargs result = loaded ? run("KEY_PRESS", tick, key, action, modifiers) : null;
+        Varargs result = loaded ? run(EventType.KEY_PRESS, tick, key, action, modifiers) : null;
         return isCancelled(result);
     }
 
     public void charTypedEvent(String chars, int modifiers, int codePoint) {
-        if (loaded) run("CHAR_TYPED", tick, chars, modifiers, codePoint);
+        if (loaded) run(EventType.CHAR_TYPED, tick, chars, modifiers, codePoint);
     }
 
     // -- rendering events -- // 
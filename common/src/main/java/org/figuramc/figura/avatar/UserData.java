@@ -3,6 +3,7 @@ package org.figuramc.figura.avatar;
 import com.mojang.datafixers.util.Pair;
 import net.minecraft.nbt.CompoundTag;
 import org.figuramc.figura.FiguraMod;
+import org.figuramc.figura.avatar.local.AvatarNbtCache;
 import org.figuramc.figura.avatar.local.CacheAvatarLoader;
 import org.figuramc.figura.backend2.NetworkStuff;
 
@@ -26,10 +27,17 @@ public class UserData {
         loadBadges(badges);
         clear();
         for (Pair<String, Pair<String, UUID>> avatar : avatars) {
-            if (!CacheAvatarLoader.checkAndLoad(avatar.getFirst(), this)) {
-                Pair<String, UUID> pair = avatar.getSecond();
-                NetworkStuff.getAvatar(this, pair.getSecond(), pair.getFirst(), avatar.getFirst());
-            }
+            String hash = avatar.getFirst();
+            Pair<String, UUID> pair = avatar.getSecond();
+            Runnable download = () -> NetworkStuff.getAvatar(this, pair.getSecond(), pair.getFirst(), hash);
+            Runnable fetch = () -> {
+                if (!CacheAvatarLoader.checkAndLoad(hash, this, download))
+                    download.run();
+            };
+
+            // already in memory, or being fetched for someone else
+            if (!AvatarNbtCache.request(hash, this, fetch))
+                fetch.run();
         }
     }
 
@@ -57,6 +65,7 @@ public class UserData {
     }
 
     public void clear() {
+        AvatarNbtCache.cancel(id);
         for (Avatar avatar : avatars)
             avatar.clean();
         avatars.clear();
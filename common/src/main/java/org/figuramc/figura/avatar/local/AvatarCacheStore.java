@@ -0,0 +1,293 @@
+package org.figuramc.figura.avatar.local;
+
+import com.google.gson.JsonObject;
+import org.figuramc.figura.FiguraMod;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Cached avatars, stored together in a single append-only pack file
+ * an index file keeps where each avatar is in the pack, and when it was last used
+ * the least recently used avatars are evicted once the pack gets too large,
+ * and the pack is compacted once too much of it belongs to evicted or replaced avatars
+ */
+public class AvatarCacheStore {
+
+    private static final int INDEX_VERSION = 1;
+    private static final long MAX_SIZE = 256L * 1024 * 1024;
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(7);
+    private static final long MIN_COMPACT = 8L * 1024 * 1024;
+    // last access times are only saved when they change by more than this
+    private static final long ACCESS_PRECISION = TimeUnit.HOURS.toMillis(1);
+
+    private final Path directory, packFile, indexFile;
+    // access ordered, so eviction starts from the least recently used avatar
+    private final LinkedHashMap<String, Entry> index = new LinkedHashMap<>(16, 0.75f, true);
+    private FileChannel pack;
+    private long liveSize;
+
+    public AvatarCacheStore(Path directory) {
+        this.directory = directory;
+        this.packFile = directory.resolve("avatars.pack");
+        this.indexFile = directory.resolve("avatars.index");
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public synchronized boolean contains(String hash) throws IOException {
+        open();
+        return index.containsKey(hash);
+    }
+
+    /**
+     * @return the stored data, or null when the avatar is not stored or its data is damaged
+     */
+    public synchronized byte[] read(String hash) throws IOException {
+        open();
+        Entry entry = index.get(hash);
+        if (entry == null)
+            return null;
+
+        ByteBuffer buffer = ByteBuffer.allocate(entry.length);
+        while (buffer.hasRemaining()) {
+            if (pack.read(buffer, entry.offset + buffer.position()) < 0)
+                break;
+        }
+
+        byte[] data = buffer.array();
+        if (buffer.hasRemaining() || checksum(data) != entry.checksum) {
+            FiguraMod.debug("Dropping damaged cache avatar \"{}\"", hash);
+            remove(hash);
+            return null;
+        }
+
+        long now = System.currentTimeMillis();
+        if (now - entry.lastAccess > ACCESS_PRECISION) {
+            index.put(hash, entry.withLastAccess(now));
+            writeIndex();
+        }
+
+        return data;
+    }
+
+    public synchronized void write(String hash, byte[] data) throws IOException {
+        open();
+        append(hash, data, System.currentTimeMillis());
+        commit();
+    }
+
+    public synchronized void remove(String hash) throws IOException {
+        open();
+        Entry entry = index.remove(hash);
+        if (entry != null) {
+            liveSize -= entry.length;
+            writeIndex();
+        }
+    }
+
+    // drops every avatar not used for a while
+    public synchronized void expire() throws IOException {
+        open();
+        long now = System.currentTimeMillis();
+        Iterator<Entry> iterator = index.values().iterator();
+        boolean changed = false;
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (now - entry.lastAccess > MAX_AGE) {
+                liveSize -= entry.length;
+                iterator.remove();
+                changed = true;
+            }
+        }
+
+        if (changed)
+            commit();
+    }
+
+    // moves avatars saved by older versions, one file per avatar, into the pack
+    public synchronized void importFiles(List<Path> files) throws IOException {
+        open();
+        long now = System.currentTimeMillis();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            String hash = name.substring(0, name.length() - ".nbt".length());
+            try {
+                long modified = Files.getLastModifiedTime(file).toMillis();
+                if (now - modified <= MAX_AGE && !index.containsKey(hash))
+                    append(hash, Files.readAllBytes(file), modified);
+                Files.deleteIfExists(file);
+            } catch (Exception e) {
+                FiguraMod.debug("Failed to import cache avatar \"{}\"", name);
+            }
+        }
+        commit();
+    }
+
+    public synchronized void clear() throws IOException {
+        close();
+        index.clear();
+        liveSize = 0;
+        Files.deleteIfExists(packFile);
+        Files.deleteIfExists(indexFile);
+    }
+
+    public synchronized void close() throws IOException {
+        if (pack != null) {
+            pack.close();
+            pack = null;
+        }
+    }
+
+    public synchronized JsonObject getStats() {
+        JsonObject stats = new JsonObject();
+        stats.addProperty("avatars", index.size());
+        stats.addProperty("liveSize", liveSize);
+        try {
+            stats.addProperty("packSize", pack == null ? 0 : pack.size());
+        } catch (IOException ignored) {}
+        return stats;
+    }
+
+
+    // -- internal -- //
+
+
+    private void open() throws IOException {
+        if (pack != null)
+            return;
+
+        readIndex();
+        pack = FileChannel.open(packFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        // drop entries the pack does not have, like after a crash while writing
+        long size = pack.size();
+        index.values().removeIf(entry -> entry.offset + entry.length > size);
+        liveSize = 0;
+        for (Entry entry : index.values())
+            liveSize += entry.length;
+    }
+
+    private void append(String hash, byte[] data, long lastAccess) throws IOException {
+        Entry old = index.remove(hash);
+        if (old != null)
+            liveSize -= old.length;
+
+        long offset = pack.size();
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (buffer.hasRemaining())
+            pack.write(buffer, offset + buffer.position());
+
+        index.put(hash, new Entry(offset, data.length, checksum(data), lastAccess));
+        liveSize += data.length;
+    }
+
+    // evicts, saves the index, and compacts the pack when it is worth it
+    private void commit() throws IOException {
+        Iterator<Entry> iterator = index.values().iterator();
+        while (liveSize > MAX_SIZE && iterator.hasNext()) {
+            liveSize -= iterator.next().length;
+            iterator.remove();
+        }
+
+        long dead = pack.size() - liveSize;
+        if (dead > MIN_COMPACT && dead > liveSize / 2)
+            compact();
+        else
+            writeIndex();
+    }
+
+    private void compact() throws IOException {
+        Path temp = directory.resolve("avatars.pack.tmp");
+        LinkedHashMap<String, Entry> moved = new LinkedHashMap<>();
+
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long offset = 0;
+            for (Map.Entry<String, Entry> mapEntry : index.entrySet()) {
+                Entry entry = mapEntry.getValue();
+                long copied = 0;
+                while (copied < entry.length)
+                    copied += pack.transferTo(entry.offset + copied, entry.length - copied, out);
+                moved.put(mapEntry.getKey(), new Entry(offset, entry.length, entry.checksum, entry.lastAccess));
+                offset += entry.length;
+            }
+            out.force(true);
+        }
+
+        long before = pack.size();
+        close();
+        Files.move(temp, packFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        pack = FileChannel.open(packFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        index.clear();
+        index.putAll(moved);
+        writeIndex();
+
+        FiguraMod.debug("Compacted avatar cache from {} to {} bytes", before, liveSize);
+    }
+
+    private void readIndex() {
+        index.clear();
+        if (!Files.exists(indexFile))
+            return;
+
+        List<Map.Entry<String, Entry>> entries = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            if (in.readInt() != INDEX_VERSION)
+                return;
+
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                String hash = in.readUTF();
+                entries.add(Map.entry(hash, new Entry(in.readLong(), in.readInt(), in.readLong(), in.readLong())));
+            }
+        } catch (Exception e) {
+            FiguraMod.LOGGER.error("Failed to read avatar cache index", e);
+            return;
+        }
+
+        // restore the access order
+        entries.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+        for (Map.Entry<String, Entry> entry : entries)
+            index.put(entry.getKey(), entry.getValue());
+    }
+
+    private void writeIndex() throws IOException {
+        Path temp = directory.resolve("avatars.index.tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(INDEX_VERSION);
+            out.writeInt(index.size());
+            for (Map.Entry<String, Entry> mapEntry : index.entrySet()) {
+                Entry entry = mapEntry.getValue();
+                out.writeUTF(mapEntry.getKey());
+                out.writeLong(entry.offset);
+                out.writeInt(entry.length);
+                out.writeLong(entry.checksum);
+                out.writeLong(entry.lastAccess);
+            }
+        }
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long checksum(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return crc.getValue();
+    }
+
+    private record Entry(long offset, int length, long checksum, long lastAccess) {
+        private Entry withLastAccess(long lastAccess) {
+            return new Entry(offset, length, checksum, lastAccess);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.figuramc.figura.avatar.local;
+
+import com.google.gson.JsonObject;
+import net.minecraft.nbt.*;
+import org.figuramc.figura.FiguraMod;
+import org.figuramc.figura.avatar.UserData;
+import org.figuramc.figura.config.Configs;
+
+import java.util.*;
+
+/**
+ * Decoded avatars shared by every user wearing the same avatar hash
+ * the first request for a hash fetches it (from the disk cache or the backend), while any other request
+ * for that same hash waits for it instead of fetching it again
+ * cached nbt is shared between avatars, so it must never be modified
+ */
+public class AvatarNbtCache {
+
+    private static final LinkedHashMap<String, CachedAvatar> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+    // users waiting for a hash someone else is fetching
+    private static final Map<String, List<Waiter>> IN_FLIGHT = new HashMap<>();
+    private static long memoryUsage = 0;
+    private static int hits, misses, joined;
+
+    /**
+     * Loads the avatar into the target if it is cached, or waits for it if it is already being fetched
+     * @param fetch fetches the avatar for the target, run by the caller when this returns false,
+     *              or later by this cache if the fetch being waited for fails
+     * @return false when the caller must fetch the avatar, and then call {@link #complete} or {@link #fail}
+     */
+    public static boolean request(String hash, UserData target, Runnable fetch) {
+        CompoundTag nbt;
+        synchronized (CACHE) {
+            CachedAvatar cached = CACHE.get(hash);
+            if (cached == null) {
+                List<Waiter> waiters = IN_FLIGHT.get(hash);
+                if (waiters == null) {
+                    IN_FLIGHT.put(hash, new ArrayList<>());
+                    misses++;
+                    return false;
+                }
+
+                joined++;
+                waiters.add(new Waiter(target, fetch));
+                return true;
+            }
+
+            hits++;
+            nbt = cached.nbt;
+        }
+
+        target.loadAvatar(nbt);
+        FiguraMod.debug("Loaded avatar \"{}\" from memory to \"{}\"", hash, target.id);
+        return true;
+    }
+
+    // stores a fetched avatar, and hands it to everyone waiting for it
+    public static void complete(String hash, CompoundTag nbt) {
+        List<Waiter> waiters;
+        synchronized (CACHE) {
+            CachedAvatar entry = new CachedAvatar(nbt, estimateSize(nbt));
+            CachedAvatar old = CACHE.put(hash, entry);
+            if (old != null)
+                memoryUsage -= old.size;
+            memoryUsage += entry.size;
+            trim();
+            waiters = IN_FLIGHT.remove(hash);
+        }
+
+        if (waiters != null) {
+            for (Waiter waiter : waiters)
+                waiter.target.loadAvatar(nbt);
+        }
+    }
+
+    // the fetch failed or was cancelled, so everyone waiting for it fetches for themselves
+    public static void fail(String hash) {
+        List<Waiter> waiters;
+        synchronized (CACHE) {
+            waiters = IN_FLIGHT.remove(hash);
+        }
+
+        // the first waiter starts a new fetch, and the others wait for that one instead
+        if (waiters != null) {
+            for (Waiter waiter : waiters) {
+                if (!request(hash, waiter.target, waiter.fetch))
+                    waiter.fetch.run();
+            }
+        }
+    }
+
+    // stops waiting on fetches for this user, like when its avatars are cleared or reloaded
+    public static void cancel(UUID id) {
+        synchronized (CACHE) {
+            for (List<Waiter> waiters : IN_FLIGHT.values())
+                waiters.removeIf(waiter -> waiter.target.id.equals(id));
+        }
+    }
+
+    public static void trim() {
+        synchronized (CACHE) {
+            long max = Configs.AVATAR_CACHE_SIZE.value * 1024L * 1024L;
+            Iterator<CachedAvatar> iterator = CACHE.values().iterator();
+            while (memoryUsage > max && iterator.hasNext()) {
+                memoryUsage -= iterator.next().size;
+                iterator.remove();
+            }
+        }
+    }
+
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+            memoryUsage = 0;
+        }
+    }
+
+    public static JsonObject getStats() {
+        JsonObject stats = new JsonObject();
+        synchronized (CACHE) {
+            stats.addProperty("avatars", CACHE.size());
+            stats.addProperty("inFlight", IN_FLIGHT.size());
+            stats.addProperty("memoryUsage", memoryUsage);
+            stats.addProperty("hits", hits);
+            stats.addProperty("misses", misses);
+            stats.addProperty("joined", joined);
+        }
+        return stats;
+    }
+
+    // rough size in memory of the tag, the arrays (textures, sounds, scripts) take most of it
+    private static long estimateSize(Tag tag) {
+        if (tag instanceof CompoundTag compound) {
+            long size = 48;
+            for (String key : compound.getAllKeys())
+                size += 32 + key.length() * 2L + estimateSize(compound.get(key));
+            return size;
+        } else if (tag instanceof CollectionTag<?> collection) {
+            if (tag instanceof ByteArrayTag bytes)
+                return 16 + bytes.getAsByteArray().length;
+            if (tag instanceof IntArrayTag ints)
+                return 16 + ints.getAsIntArray().length * 4L;
+            if (tag instanceof LongArrayTag longs)
+                return 16 + longs.getAsLongArray().length * 8L;
+
+            long size = 32;
+            for (Tag child : collection)
+                size += 8 + estimateSize(child);
+            return size;
+        } else if (tag instanceof StringTag string) {
+            return 40 + string.getAsString().length() * 2L;
+        }
+        return 16;
+    }
+
+    private record CachedAvatar(CompoundTag nbt, long size) {}
+
+    private record Waiter(UserData target, Runnable fetch) {}
+}
@@ -1,77 +1,102 @@
 package org.figuramc.figura.avatar.local;
 
+import com.google.gson.JsonObject;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.NbtIo;
 import org.figuramc.figura.FiguraMod;
 import org.figuramc.figura.avatar.UserData;
 import org.figuramc.figura.utils.IOUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 public class CacheAvatarLoader {
 
+    private static AvatarCacheStore store;
+
     public static void init() {
         LocalAvatarLoader.async(() -> {
-            Path file = getAvatarCacheDirectory();
-            if (!(Files.exists(file) && Files.isDirectory(file)))
-                return;
-
-            List<Path> children = IOUtils.listPaths(file);
-            if (children == null)
-                return;
-
-            for (Path child : children) {
-                try {
-                    FileTime time = Files.getLastModifiedTime(child);
-                    long diff = System.currentTimeMillis() - time.toMillis();
-                    long elapsed = TimeUnit.MILLISECONDS.toDays(diff);
-                    if (elapsed > 7) {
-                        if (Files.deleteIfExists(child)) {
-                            FiguraMod.debug("Successfully deleted cache avatar \"{}\" with \"{}\" days old", IOUtils.getFileNameOrEmpty(child), elapsed);
-                        } else {
-                            throw new Exception();
-                        }
+            try {
+                AvatarCacheStore store = getStore();
+                store.expire();
+
+                // avatars cached by older versions
+                List<Path> children = IOUtils.listPaths(store.getDirectory());
+                List<Path> legacy = new ArrayList<>();
+                if (children != null) {
+                    for (Path child : children) {
+                        if (child.getFileName().toString().endsWith(".nbt"))
+                            legacy.add(child);
                     }
-                } catch (Exception ignored) {
-                    FiguraMod.debug("Failed to delete cache avatar \"{}\"", IOUtils.getFileNameOrEmpty(child));
                 }
+                if (!legacy.isEmpty()) {
+                    store.importFiles(legacy);
+                    FiguraMod.debug("Imported {} cache avatars", legacy.size());
+                }
+            } catch (Exception e) {
+                FiguraMod.LOGGER.error("Failed to initialize avatar cache", e);
             }
         });
     }
 
-    public static boolean checkAndLoad(String hash, UserData target) {
-        Path p = getAvatarCacheDirectory();
-        p = p.resolve(hash + ".nbt");
-
-        if (Files.exists(p)) {
-            load(hash, target);
-            return true;
+    /**
+     * Loads the avatar from the cache, if it is there
+     * @param fallback fetches the avatar elsewhere, when it is gone from the cache by the time it is read
+     */
+    public static boolean checkAndLoad(String hash, UserData target, Runnable fallback) {
+        try {
+            if (getStore().contains(hash)) {
+                load(hash, target, fallback);
+                return true;
+            }
+        } catch (Exception e) {
+            FiguraMod.LOGGER.error("Failed to check cache avatar: " + hash, e);
         }
 
         return false;
     }
 
-    public static void load(String hash, UserData target) {
+    public static void load(String hash, UserData target, Runnable fallback) {
         LocalAvatarLoader.async(() -> {
-            Path path = getAvatarCacheDirectory().resolve(hash + ".nbt");
+            AvatarCacheStore store = getStore();
+            CompoundTag nbt = null;
             try {
-                target.loadAvatar(NbtIo.readCompressed(Files.newInputStream(path)));
-                FiguraMod.debug("Loaded avatar \"{}\" from cache to \"{}\"", hash, target.id);
+                byte[] data = store.read(hash);
+                if (data != null) {
+                    try {
+                        nbt = NbtIo.readCompressed(new ByteArrayInputStream(data));
+                    } catch (Exception e) {
+                        store.remove(hash);
+                        throw e;
+                    }
+                }
             } catch (Exception e) {
                 FiguraMod.LOGGER.error("Failed to load cache avatar: " + hash, e);
             }
+
+            // evicted or damaged since it was checked, so the target still needs it from elsewhere
+            if (nbt == null) {
+                FiguraMod.debug("Cache avatar \"{}\" is no longer available, fetching it again", hash);
+                fallback.run();
+                return;
+            }
+
+            AvatarNbtCache.complete(hash, nbt);
+            target.loadAvatar(nbt);
+            FiguraMod.debug("Loaded avatar \"{}\" from cache to \"{}\"", hash, target.id);
         });
     }
 
     public static void save(String hash, CompoundTag nbt) {
         LocalAvatarLoader.async(() -> {
-            Path file = getAvatarCacheDirectory().resolve(hash + ".nbt");
             try {
-                NbtIo.writeCompressed(nbt, Files.newOutputStream(file));
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                NbtIo.writeCompressed(nbt, out);
+                getStore().write(hash, out.toByteArray());
                 FiguraMod.debug("Saved avatar \"{}\" on cache", hash);
             } catch (Exception e) {
                 FiguraMod.LOGGER.error("Failed to save avatar on cache: " + hash, e);
@@ -80,22 +105,24 @@ public class CacheAvatarLoader {
     }
 
     public static void clearCache() {
+        AvatarNbtCache.clear();
         LocalAvatarLoader.async(() -> {
-            Path file = getAvatarCacheDirectory();
-
-            if (!(Files.exists(file) && Files.isDirectory(file)))
-                return;
-
-            List<Path> children = IOUtils.listPaths(file);
-            if (children == null)
-                return;
+            try {
+                getStore().clear();
+            } catch (Exception e) {
+                FiguraMod.LOGGER.error("Failed to clear avatar cache", e);
+            }
 
-            for (Path child : children) {
-                try {
-                    if (!Files.deleteIfExists(child))
-                        throw new Exception();
-                } catch (Exception ignored) {
-                    FiguraMod.debug("Failed to delete cache avatar \"{}\"", IOUtils.getFileNameOrEmpty(child));
+            // anything else left in the folder
+            List<Path> children = IOUtils.listPaths(getAvatarCacheDirectory());
+            if (children != null) {
+                for (Path child : children) {
+                    try {
+                        if (!Files.deleteIfExists(child))
+                            throw new Exception();
+                    } catch (Exception ignored) {
+                        FiguraMod.debug("Failed to delete cache avatar \"{}\"", IOUtils.getFileNameOrEmpty(child));
+                    }
                 }
             }
 
@@ -103,6 +130,24 @@ public class CacheAvatarLoader {
         });
     }
 
+    public static JsonObject getStats() {
+        return getStore().getStats();
+    }
+
+    // the store follows the cache directory, which can change with the configs
+    private static synchronized AvatarCacheStore getStore() {
+        Path directory = getAvatarCacheDirectory();
+        if (store == null || !store.getDirectory().equals(directory)) {
+            if (store != null) {
+                try {
+                    store.close();
+                } catch (Exception ignored) {}
+            }
+            store = new AvatarCacheStore(directory);
+        }
+        return store;
+    }
+
     // cache directory
     public static Path getAvatarCacheDirectory() {
         return IOUtils.getOrCreateDir(FiguraMod.getCacheDirectory(), "avatars");
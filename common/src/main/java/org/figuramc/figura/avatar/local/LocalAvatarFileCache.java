@@ -0,0 +1,115 @@
+package org.figuramc.figura.avatar.local;
+
+import org.figuramc.figura.utils.IOUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parsed files of the local avatar, so hot-reloading only parses again the files that were changed
+ * files are compared by their modified time and size first, then by their content hash when those differ
+ * files the watcher reported as changed are always hashed, as coarse timestamps can miss same size edits
+ */
+public class LocalAvatarFileCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> used = ConcurrentHashMap.newKeySet();
+    // paths reported by the watcher, since the last load began and for the current load
+    private final Set<Path> pendingChanges = ConcurrentHashMap.newKeySet();
+    private volatile Set<Path> changes = Set.of();
+    private volatile boolean pendingOverflow, overflow;
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Path file, FileParser<T> parser) throws Exception {
+        used.add(key);
+
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long modified = attributes.lastModifiedTime().toMillis();
+        long size = attributes.size();
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.modified == modified && entry.size == size && !isChanged(file))
+            return (T) entry.value;
+
+        // touched, but maybe not changed
+        byte[] bytes = IOUtils.readFileBytes(file);
+        byte[] hash = hash(bytes);
+        if (entry != null && Arrays.equals(entry.hash, hash)) {
+            entries.put(key, new Entry(modified, size, hash, entry.value));
+            return (T) entry.value;
+        }
+
+        T value = parser.parse(bytes);
+        entries.put(key, new Entry(modified, size, hash, value));
+        return value;
+    }
+
+    // starts tracking which entries are used by a new load
+    public void begin() {
+        used.clear();
+
+        // changes reported from now on belong to the next load
+        Set<Path> changes = new HashSet<>(pendingChanges);
+        pendingChanges.removeAll(changes);
+        this.changes = changes;
+        this.overflow = pendingOverflow;
+        pendingOverflow = false;
+    }
+
+    // a file, or a folder with everything inside it, that the watcher reported as changed
+    public void markChanged(Path path) {
+        pendingChanges.add(path.toAbsolutePath().normalize());
+    }
+
+    // the watcher lost events, so every file must be checked
+    public void markAllChanged() {
+        pendingOverflow = true;
+    }
+
+    private boolean isChanged(Path file) {
+        if (overflow)
+            return true;
+
+        Path path = file.toAbsolutePath().normalize();
+        for (Path changed : changes) {
+            if (path.startsWith(changed))
+                return true;
+        }
+        return false;
+    }
+
+    // drops every entry that the last load did not use
+    public void sweep() {
+        entries.keySet().retainAll(used);
+    }
+
+    public void clear() {
+        entries.clear();
+        used.clear();
+        pendingChanges.clear();
+        changes = Set.of();
+    }
+
+    private static byte[] hash(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(long modified, long size, byte[] hash, Object value) {}
+
+    @FunctionalInterface
+    public interface FileParser<T> {
+        T parse(byte[] bytes) throws Exception;
+    }
+}
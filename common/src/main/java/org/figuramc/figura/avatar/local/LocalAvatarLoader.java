@@ -7,6 +7,7 @@ import net.minecraft.server.packs.resources.Resource;
 import org.figuramc.figura.FiguraMod;
 import org.figuramc.figura.avatar.AvatarManager;
 import org.figuramc.figura.avatar.UserData;
+import org.figuramc.figura.config.Configs;
 import org.figuramc.figura.gui.FiguraToast;
 import org.figuramc.figura.parsers.AvatarMetadataParser;
 import org.figuramc.figura.parsers.BlockbenchModelParser;
@@ -14,16 +15,20 @@ import org.figuramc.figura.parsers.LuaScriptParser;
 import org.figuramc.figura.utils.FiguraResourceListener;
 import org.figuramc.figura.utils.FiguraText;
 import org.figuramc.figura.utils.IOUtils;
+import org.jetbrains.annotations.NotNull;
 
 import java.io.ByteArrayOutputStream;
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.regex.Pattern;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPOutputStream;
 
 /**
@@ -34,6 +39,23 @@ public class LocalAvatarLoader {
 
     public static final boolean IS_WINDOWS = Util.getPlatform() == Util.OS.WINDOWS;
     private static final HashMap<Path, WatchKey> KEYS = new HashMap<>();
+    private static final LocalAvatarFileCache FILE_CACHE = new LocalAvatarFileCache();
+
+    // parses the avatar files, results are always merged back in the same order
+    private static final ExecutorService WORKERS = Executors.newFixedThreadPool(Math.max(Math.min(Runtime.getRuntime().availableProcessors() - 1, 8), 1), new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@NotNull Runnable runnable) {
+            Thread thread = new Thread(runnable, "Figura Avatar Loader #" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    // how long the avatar files must stay untouched before hot-reloading
+    private static final long RELOAD_DELAY = 250;
+    private static long reloadTime = -1;
 
     private static CompletableFuture<Void> tasks;
     private static Path lastLoadedPath;
@@ -95,8 +117,10 @@ public class LocalAvatarLoader {
      * @param path - the file/folder for loading the avatar
      */
     public static void loadAvatar(Path path, UserData target) {
+        Path previousPath = lastLoadedPath;
         loadError = null;
         loadState = LoadState.UNKNOWN;
+        reloadTime = -1;
         resetWatchKeys();
         try {
             path = path == null ? null : path.getFileSystem() == FileSystems.getDefault() ? Path.of(path.toFile().getCanonicalPath()) : path.normalize();
@@ -104,6 +128,10 @@ public class LocalAvatarLoader {
         }
         lastLoadedPath = path;
 
+        // parsed files are only kept while hot-reloading the same avatar
+        if (!Objects.equals(previousPath, path))
+            FILE_CACHE.clear();
+
         if (path == null || target == null)
             return;
 
@@ -114,27 +142,41 @@ public class LocalAvatarLoader {
             try {
                 // load as folder
                 CompoundTag nbt = new CompoundTag();
+                FILE_CACHE.begin();
+
+                // start every file at once, tasks never wait on other tasks so the pool cannot run out of threads
+                Map<String, CompletableFuture<ByteArrayTag>> scripts = submitScripts(finalPath);
+                CompletableFuture<CompoundTag> sounds = submit(() -> loadSounds(finalPath));
+                String textureStamp = getTextureStamp(finalPath);
+                List<PendingModel> pendingModels = submitModels(finalPath, finalPath, "", textureStamp);
+                CompletableFuture<String> metadataJson = submit(() -> IOUtils.readFile(finalPath.resolve("avatar.json")));
 
                 // scripts
                 loadState = LoadState.SCRIPTS;
-                loadScripts(finalPath, nbt);
+                if (!scripts.isEmpty()) {
+                    CompoundTag scriptsNbt = new CompoundTag();
+                    for (Map.Entry<String, CompletableFuture<ByteArrayTag>> entry : scripts.entrySet())
+                        scriptsNbt.put(entry.getKey(), join(entry.getValue()));
+                    nbt.put("scripts", scriptsNbt);
+                }
 
                 // custom sounds
                 loadState = LoadState.SOUNDS;
-                loadSounds(finalPath, nbt);
+                CompoundTag soundsNbt = join(sounds);
+                if (!soundsNbt.isEmpty())
+                    nbt.put("sounds", soundsNbt);
 
                 // models
                 CompoundTag textures = new CompoundTag();
                 ListTag animations = new ListTag();
-                BlockbenchModelParser modelParser = new BlockbenchModelParser();
 
                 loadState = LoadState.MODELS;
-                CompoundTag models = loadModels(finalPath, finalPath, modelParser, textures, animations, "");
+                CompoundTag models = mergeModels(pendingModels, new ModelMerger(textures, animations));
                 models.putString("name", "models");
 
                 // metadata
                 loadState = LoadState.METADATA;
-                String _meta = IOUtils.readFile(finalPath.resolve("avatar.json"));
+                String _meta = join(metadataJson);
 				var metadata = AvatarMetadataParser.read(_meta);
 
 				CompoundTag metaNBT = AvatarMetadataParser.parse(metadata,_meta, IOUtils.getFileNameOrEmpty(finalPath));
@@ -158,6 +200,7 @@ public class LocalAvatarLoader {
                 }
 
                 // load
+                FILE_CACHE.sweep();
                 target.loadAvatar(nbt);
             } catch (Throwable e) {
                 loadError = e.getMessage();
@@ -166,33 +209,40 @@ public class LocalAvatarLoader {
             }
         });
     }
-    private static void loadResources(CompoundTag nbt, ListTag pathsTag, Path parentPath) {
+    // already compressed formats, deflating them again only costs time
+    private static final Set<String> STORED_RESOURCES = Set.of("png", "ogg", "jpg", "jpeg", "gz", "zip", "nbt");
+
+    private static void loadResources(CompoundTag nbt, ListTag pathsTag, Path parentPath) throws IOException {
         ArrayList<PathMatcher> pathMatchers = new ArrayList<>();
-        FileSystem fs = FileSystems.getDefault();
+        FileSystem fs = parentPath.getFileSystem();
         for (int i = 0; i < pathsTag.size(); i++) {
             pathMatchers.add(fs.getPathMatcher("glob:".concat(pathsTag.getString(i))));
         }
-        Map<String, Path> pathMap = new HashMap<>();
-        matchPathsRecursive(pathMap, parentPath, parentPath, pathMatchers);
+        Map<String, Path> pathMap = matchPaths(parentPath, pathMatchers);
+
+        int level = Math.min(Configs.RESOURCE_COMPRESSION.value, Deflater.BEST_COMPRESSION);
+        long time = System.nanoTime();
+        long packed = 0;
+
         CompoundTag resourcesTag = new CompoundTag();
-        for (String p:
-                pathMap.keySet()) {
-            try (FileInputStream fis = new FileInputStream(pathMap.get(p).toFile())) {
-                ByteArrayOutputStream baos = new ByteArrayOutputStream();
-                GZIPOutputStream gos = new GZIPOutputStream(baos);
-                int i;
-                while ((i = fis.read()) != -1) {
-                    gos.write(i);
-                }
-                gos.close();
-                resourcesTag.put(unixifyPath(p), new ByteArrayTag(baos.toByteArray()));
-                baos.close();
-            }
-            catch (IOException e) {
-                throw new RuntimeException(e);
+        for (Map.Entry<String, Path> entry : pathMap.entrySet()) {
+            Path path = entry.getValue();
+            String name = IOUtils.getFileNameOrEmpty(path);
+            String extension = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.US);
+            int fileLevel = STORED_RESOURCES.contains(extension) ? Deflater.NO_COMPRESSION : level;
+
+            long size = Files.size(path);
+            ByteArrayOutputStream baos = new ByteArrayOutputStream((int) Math.min(size + 64, Integer.MAX_VALUE - 8));
+            try (InputStream in = Files.newInputStream(path); GZIPOutputStream gos = new GZIPOutputStream(baos, 8192) {{ def.setLevel(fileLevel); }}) {
+                in.transferTo(gos);
             }
+            resourcesTag.put(unixifyPath(entry.getKey()), new ByteArrayTag(baos.toByteArray()));
+            packed += size;
         }
         nbt.put("resources", resourcesTag);
+
+        double seconds = (System.nanoTime() - time) / 1e9;
+        FiguraMod.debug("Packed {} resources ({} bytes) in {}s, {} bytes/s", pathMap.size(), packed, seconds, seconds > 0 ? (long) (packed / seconds) : packed);
     }
 
     private static String unixifyPath(String original) {
@@ -204,105 +254,172 @@ public class LocalAvatarLoader {
         return String.join("/", components);
     }
 
-    private static void matchPathsRecursive(Map<String, Path> pathMap, Path parent, Path current, ArrayList<PathMatcher> matchers) {
-        File f = current.toFile();
-        if (f.isFile()) {
-            Path relative = parent.toAbsolutePath().relativize(current.toAbsolutePath()).normalize();
-            for (PathMatcher m :
-                    matchers) {
-                if (m.matches(relative)) {
-                    pathMap.put(relative.toString(), current);
-                    break;
+    private static Map<String, Path> matchPaths(Path parent, List<PathMatcher> matchers) throws IOException {
+        Map<String, Path> pathMap = new HashMap<>();
+        Files.walkFileTree(parent, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                Path relative = parent.relativize(file).normalize();
+                for (PathMatcher m : matchers) {
+                    if (m.matches(relative)) {
+                        pathMap.put(relative.toString(), file);
+                        break;
+                    }
                 }
+                return FileVisitResult.CONTINUE;
             }
-        }
-        else {
-            for (File fl :
-                    current.toFile().listFiles()) {
-                matchPathsRecursive(pathMap, parent, fl.toPath(), matchers);
+        });
+        return pathMap;
+    }
+
+    private static <T> CompletableFuture<T> submit(Callable<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
             }
+        }, WORKERS);
+    }
+
+    // waits for the task, throwing its own exception instead of the wrapped one
+    private static <T> T join(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause)
+                throw cause;
+            throw e;
         }
     }
 
-    private static void loadScripts(Path path, CompoundTag nbt) throws IOException {
+    private static Map<String, CompletableFuture<ByteArrayTag>> submitScripts(Path path) {
+        Map<String, CompletableFuture<ByteArrayTag>> scriptsNbt = new LinkedHashMap<>();
         List<Path> scripts = IOUtils.getFilesByExtension(path, ".lua");
         if (scripts.size() > 0) {
-            CompoundTag scriptsNbt = new CompoundTag();
             String pathRegex = path.toString().isEmpty() ? "\\Q\\E" : Pattern.quote(path + path.getFileSystem().getSeparator());
             for (Path script : scripts) {
                 String name = script.toString()
                         .replaceFirst(pathRegex, "")
                         .replaceAll("[/\\\\]", ".");
-                name = name.substring(0, name.length() - 4);
-                scriptsNbt.put(name, LuaScriptParser.parseScript(name, IOUtils.readFile(script)));
+                String scriptName = name.substring(0, name.length() - 4);
+                String key = "script:" + Configs.FORMAT_SCRIPT.value + ":" + scriptName + ":" + script.toUri();
+                scriptsNbt.put(scriptName, submit(() -> FILE_CACHE.get(key, script, bytes -> LuaScriptParser.parseScript(scriptName, new String(bytes, StandardCharsets.UTF_8)))));
             }
-            nbt.put("scripts", scriptsNbt);
         }
+        return scriptsNbt;
     }
 
-    private static void loadSounds(Path path, CompoundTag nbt) throws IOException {
+    private static CompoundTag loadSounds(Path path) throws Exception {
+        CompoundTag soundsNbt = new CompoundTag();
         List<Path> sounds = IOUtils.getFilesByExtension(path, ".ogg");
         if (sounds.size() > 0) {
-            CompoundTag soundsNbt = new CompoundTag();
             String pathRegex = Pattern.quote(path.toString().isEmpty() ? path.toString() : path + path.getFileSystem().getSeparator());
             for (Path sound : sounds) {
                 String name = sound.toString()
                         .replaceFirst(pathRegex, "")
                         .replaceAll("[/\\\\]", ".");
                 name = name.substring(0, name.length() - 4);
-                soundsNbt.putByteArray(name, IOUtils.readFileBytes(sound));
+                soundsNbt.putByteArray(name, FILE_CACHE.get("sound:" + sound.toUri(), sound, bytes -> bytes));
             }
-            nbt.put("sounds", soundsNbt);
         }
+        return soundsNbt;
     }
 
-    private static CompoundTag loadModels(Path avatarFolder, Path currentFile, BlockbenchModelParser parser, CompoundTag textures, ListTag animations, String folders) throws Exception {
-        CompoundTag result = new CompoundTag();
+    // models also read the textures they use, so any change to a texture makes all models parse again
+    private static String getTextureStamp(Path path) throws IOException {
+        long stamp = 0;
+        for (Path texture : IOUtils.getFilesByExtension(path, ".png"))
+            stamp = stamp * 31 + texture.hashCode() * 31L + Files.getLastModifiedTime(texture).toMillis();
+        return Long.toHexString(stamp);
+    }
+
+    // starts parsing every model in the folder tree, keeping the tree order
+    private static List<PendingModel> submitModels(Path avatarFolder, Path currentFile, String folders, String textureStamp) {
+        List<PendingModel> result = new ArrayList<>();
         List<Path> subFiles = IOUtils.listPaths(currentFile);
-        ListTag children = new ListTag();
         if (subFiles != null)
             for (Path file : subFiles) {
                 if (IOUtils.isHidden(file))
                     continue;
                 String name = IOUtils.getFileNameOrEmpty(file);
                 if (Files.isDirectory(file)) {
-                    CompoundTag subfolder = loadModels(avatarFolder, file, parser, textures, animations, folders + name + ".");
-                    if (!subfolder.isEmpty()) {
-                        subfolder.putString("name", name);
-                        BlockbenchModelParser.parseParent(name, subfolder);
-                        children.add(subfolder);
-                    }
+                    result.add(new PendingModel(name, null, submitModels(avatarFolder, file, folders + name + ".", textureStamp)));
                 } else if (file.toString().toLowerCase(Locale.US).endsWith(".bbmodel")) {
-                    BlockbenchModelParser.ModelData data = parser.parseModel(avatarFolder, file, IOUtils.readFile(file), name.substring(0, name.length() - 8), folders);
-                    children.add(data.modelNbt());
-                    animations.addAll(data.animationList());
+                    String modelName = name.substring(0, name.length() - 8);
+                    String key = "model:" + folders + ":" + textureStamp + ":" + file.toUri();
+                    CompletableFuture<BlockbenchModelParser.ModelData> model = submit(() -> FILE_CACHE.get(key, file, bytes ->
+                            new BlockbenchModelParser().parseModel(avatarFolder, file, new String(bytes, StandardCharsets.UTF_8), modelName, folders)
+                    ));
+                    result.add(new PendingModel(name, model, null));
+                }
+            }
+        return result;
+    }
 
-                    CompoundTag dataTag = data.textures();
-                    if (dataTag.isEmpty())
-                        continue;
+    private static CompoundTag mergeModels(List<PendingModel> models, ModelMerger merger) throws Exception {
+        CompoundTag result = new CompoundTag();
+        ListTag children = new ListTag();
+        for (PendingModel pending : models) {
+            if (pending.model() == null) {
+                CompoundTag subfolder = mergeModels(pending.children(), merger);
+                if (!subfolder.isEmpty()) {
+                    subfolder.putString("name", pending.name());
+                    BlockbenchModelParser.parseParent(pending.name(), subfolder);
+                    children.add(subfolder);
+                }
+                continue;
+            }
 
-                    if (textures.isEmpty()) {
-                        textures.put("data", new ListTag());
-                        textures.put("src", new CompoundTag());
-                    }
+            // models are parsed with their ids starting at zero, so move them after the previous models
+            // this also copies the data, keeping the cached one untouched by the metadata injection
+            BlockbenchModelParser.ModelData parsed = join(pending.model());
+            BlockbenchModelParser.ModelData data = parsed.withOffsets(merger.textureOffset, merger.animationOffset);
+            merger.textureOffset += parsed.textureCount();
+            merger.animationOffset += parsed.animationList().size();
 
-                    textures.getList("data", Tag.TAG_COMPOUND).addAll(dataTag.getList("data", Tag.TAG_COMPOUND));
-                    textures.getCompound("src").merge(dataTag.getCompound("src"));
-                }
+            children.add(data.modelNbt());
+            merger.animations.addAll(data.animationList());
+
+            CompoundTag dataTag = data.textures();
+            if (dataTag.isEmpty())
+                continue;
+
+            CompoundTag textures = merger.textures;
+            if (textures.isEmpty()) {
+                textures.put("data", new ListTag());
+                textures.put("src", new CompoundTag());
             }
 
+            textures.getList("data", Tag.TAG_COMPOUND).addAll(dataTag.getList("data", Tag.TAG_COMPOUND));
+            textures.getCompound("src").merge(dataTag.getCompound("src"));
+        }
+
         if (children.size() > 0)
             result.put("chld", children);
 
         return result;
     }
 
+    private record PendingModel(String name, CompletableFuture<BlockbenchModelParser.ModelData> model, List<PendingModel> children) {}
+
+    private static class ModelMerger {
+        private final CompoundTag textures;
+        private final ListTag animations;
+        private int textureOffset, animationOffset;
+
+        private ModelMerger(CompoundTag textures, ListTag animations) {
+            this.textures = textures;
+            this.animations = animations;
+        }
+    }
+
     /**
      * Tick the watched key for hotswapping avatars
+     * bursts of file changes are merged into a single reload, once the files stop changing
      */
     public static void tick() {
         WatchEvent<?> event = null;
-        boolean reload = false;
 
         for (Map.Entry<Path, WatchKey> entry : KEYS.entrySet()) {
             WatchKey key = entry.getValue();
@@ -311,11 +428,12 @@ public class LocalAvatarLoader {
 
             for (WatchEvent<?> watchEvent : key.pollEvents()) {
                 WatchEvent.Kind<?> kind = watchEvent.kind();
-                if (kind == StandardWatchEventKinds.OVERFLOW)
+                if (kind == StandardWatchEventKinds.OVERFLOW) {
+                    FILE_CACHE.markAllChanged();
                     continue;
+                }
 
-                event = watchEvent;
-                Path path = entry.getKey().resolve((Path) event.context());
+                Path path = entry.getKey().resolve((Path) watchEvent.context());
                 String name = IOUtils.getFileNameOrEmpty(path);
 
                 if (IOUtils.isHiddenAvatarResource(path) || !(Files.isDirectory(path) || name.matches("(.*(\\.lua|\\.bbmodel|\\.ogg|\\.png)$|avatar\\.json)")))
@@ -324,17 +442,23 @@ public class LocalAvatarLoader {
                 if (kind == StandardWatchEventKinds.ENTRY_CREATE && !IS_WINDOWS)
                     addWatchKey(path, KEYS::put);
 
-                reload = true;
-                break;
+                // timestamps alone can miss this change
+                FILE_CACHE.markChanged(path);
+
+                event = watchEvent;
             }
+        }
 
-            if (reload)
-                break;
+        // (re)start the delay
+        long time = System.currentTimeMillis();
+        if (event != null) {
+            FiguraMod.debug("Detected file changes in the Avatar directory (" + event.context().toString() + "), reloading soon!");
+            reloadTime = time + RELOAD_DELAY;
         }
 
         // reload avatar
-        if (reload) {
-            FiguraMod.debug("Detected file changes in the Avatar directory (" + event.context().toString() + "), reloading!");
+        if (reloadTime != -1 && time >= reloadTime) {
+            reloadTime = -1;
             AvatarManager.loadLocalAvatar(lastLoadedPath);
         }
     }
@@ -4,6 +4,7 @@ import net.minecraft.client.multiplayer.resolver.ServerAddress;
 import org.figuramc.figura.FiguraMod;
 import org.figuramc.figura.config.Configs;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpRequest;
@@ -45,35 +46,79 @@ public class HttpAPI {
 
 
     protected static void runString(HttpRequest request, BiConsumer<Integer, String> consumer) {
+        runString(request, consumer, true);
+    }
+
+    /**
+     * @param lastAttempt when false, failed requests are not handled, so they can be retried
+     * @return true when the request failed and the consumer was not called
+     */
+    protected static boolean runString(HttpRequest request, BiConsumer<Integer, String> consumer, boolean lastAttempt) {
+        HttpResponse<String> response;
         try {
             requestDebug(request);
-            HttpResponse<String> response = NetworkStuff.client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
-            int code = response.statusCode();
+            response = NetworkStuff.client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            if (lastAttempt) logError(e);
+            return true;
+        }
+
+        int code = response.statusCode();
+        if (!lastAttempt && shouldRetry(code)) return true;
+
+        try {
             if (code == 401) NetworkStuff.reAuth();
             consumer.accept(code, response.body());
         } catch (Exception e) {
-            if (!e.getMessage().contains("GOAWAY received"))
-                FiguraMod.LOGGER.error("", e);
+            logError(e);
         }
+        return false;
     }
 
-    protected static void runStream(HttpRequest request, BiConsumer<Integer, InputStream> consumer) {
+    /**
+     * @param lastAttempt when false, failed requests are not handled, so they can be retried
+     * @return true when the request failed and the consumer was not called
+     */
+    protected static boolean runStream(HttpRequest request, BiConsumer<Integer, InputStream> consumer, boolean lastAttempt) {
+        HttpResponse<InputStream> response;
         try {
             requestDebug(request);
-            HttpResponse<InputStream> response = NetworkStuff.client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            response = NetworkStuff.client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        } catch (Exception e) {
+            if (lastAttempt) logError(e);
+            return true;
+        }
+
+        InputStream stream = response.body();
+        try {
             int code = response.statusCode();
+            if (!lastAttempt && shouldRetry(code)) return true;
             if (code == 401) NetworkStuff.reAuth();
-            consumer.accept(code, response.body());
+            consumer.accept(code, stream);
         } catch (Exception e) {
-            if (!e.getMessage().contains("GOAWAY received"))
-                FiguraMod.LOGGER.error("", e);
+            logError(e);
+        } finally {
+            try {
+                stream.close();
+            } catch (IOException ignored) {}
         }
+        return false;
+    }
+
+    // rate limited, or the backend is temporarily unavailable
+    private static boolean shouldRetry(int code) {
+        return code == 429 || code == 502 || code == 503 || code == 504;
     }
 
 
     // -- feedback -- // 
 
 
+    private static void logError(Exception e) {
+        if (e.getMessage() == null || !e.getMessage().contains("GOAWAY received"))
+            FiguraMod.LOGGER.error("", e);
+    }
+
     private static void requestDebug(HttpRequest msg) {
         if (NetworkStuff.debug)
             FiguraMod.debug( "Sent Http request:\n\t" + msg.uri().toString() + "\n\t" + msg.headers().map().toString());
@@ -6,15 +6,18 @@ import com.neovisionaries.ws.client.WebSocket;
 import com.neovisionaries.ws.client.WebSocketException;
 import net.minecraft.Util;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.client.multiplayer.ClientPacketListener;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.NbtIo;
 import net.minecraft.network.chat.Component;
+import net.minecraft.world.entity.player.Player;
 import org.figuramc.figura.FiguraMod;
 import org.figuramc.figura.avatar.Avatar;
 import org.figuramc.figura.avatar.AvatarManager;
 import org.figuramc.figura.avatar.Badges;
 import org.figuramc.figura.avatar.UserData;
+import org.figuramc.figura.avatar.local.AvatarNbtCache;
 import org.figuramc.figura.avatar.local.CacheAvatarLoader;
 import org.figuramc.figura.backend2.trust.KeyStoreHelper;
 import org.figuramc.figura.backend2.websocket.C2SMessageHandler;
@@ -38,10 +41,7 @@ import java.nio.ByteBuffer;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
-import java.util.ArrayList;
-import java.util.BitSet;
-import java.util.List;
-import java.util.UUID;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.function.BiConsumer;
@@ -53,9 +53,13 @@ public class NetworkStuff {
     protected static final HttpClient client = HttpClient.newHttpClient();
     protected static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
 
-    private static final ConcurrentLinkedQueue<Request<HttpAPI>> API_REQUESTS = new ConcurrentLinkedQueue<>();
+    private static final RequestScheduler API_REQUESTS = new RequestScheduler(() -> isConnected() ? api : null);
     private static final ConcurrentLinkedQueue<Request<WebSocket>> WS_REQUESTS = new ConcurrentLinkedQueue<>();
-    private static final List<UUID> SUBSCRIPTIONS = new ArrayList<>();
+    private static final Set<UUID> SUBSCRIPTIONS = new HashSet<>();
+    // online players when the subscriptions were last updated
+    private static int onlineCount, onlineHash;
+    // players in render distance, their requests go first
+    private static volatile Set<UUID> visiblePlayers = Set.of();
     private static CompletableFuture<Void> tasks;
 
     private static final int RECONNECT = 6000; //5 min
@@ -80,6 +84,8 @@ public class NetworkStuff {
             uploadRate = new RefilledNumber(),
             downloadRate = new RefilledNumber();
     private static int maxAvatarSize = Integer.MAX_VALUE;
+    // whether the backend understands batched subscription messages, as advertised in its limits
+    private static volatile boolean subBatching = false;
 
     public static void tick() {
         //limits
@@ -117,29 +123,50 @@ public class NetworkStuff {
             return;
         }
 
-        List<UUID> unsub = new ArrayList<>(SUBSCRIPTIONS);
-        for (UUID uuid : connection.getOnlinePlayerIds()) {
-            unsub.remove(uuid);
-            if (!SUBSCRIPTIONS.contains(uuid)) {
-                SUBSCRIPTIONS.add(uuid);
-                subscribe(uuid);
-            }
+        ClientLevel level = Minecraft.getInstance().level;
+        if (level != null && FiguraMod.ticks % 20 == 0) {
+            Set<UUID> visible = new HashSet<>();
+            for (Player player : level.players())
+                visible.add(player.getUUID());
+            visiblePlayers = visible;
         }
 
-        for (UUID uuid : unsub) {
-            SUBSCRIPTIONS.remove(uuid);
-            unsubscribe(uuid);
+        // only diff when the player list changed, checked again every second just in case
+        Collection<UUID> online = connection.getOnlinePlayerIds();
+        int hash = 0;
+        for (UUID uuid : online)
+            hash += uuid.hashCode();
+        if (online.size() == onlineCount && hash == onlineHash && FiguraMod.ticks % 20 != 0)
+            return;
+        onlineCount = online.size();
+        onlineHash = hash;
+
+        List<UUID> sub = new ArrayList<>();
+        List<UUID> unsub = new ArrayList<>();
+        synchronized (SUBSCRIPTIONS) {
+            for (UUID uuid : online) {
+                if (SUBSCRIPTIONS.add(uuid))
+                    sub.add(uuid);
+            }
+
+            if (SUBSCRIPTIONS.size() > online.size()) {
+                Set<UUID> onlineSet = new HashSet<>(online);
+                Iterator<UUID> iterator = SUBSCRIPTIONS.iterator();
+                while (iterator.hasNext()) {
+                    UUID uuid = iterator.next();
+                    if (!onlineSet.contains(uuid)) {
+                        iterator.remove();
+                        unsub.add(uuid);
+                    }
+                }
+            }
         }
+
+        updateSubscriptions(sub, unsub);
     }
 
     private static void processRequests() {
-        if (!API_REQUESTS.isEmpty()) {
-            Request<HttpAPI> request;
-            while ((request = API_REQUESTS.poll()) != null) {
-                Request<HttpAPI> finalRequest = request;
-                async(() -> finalRequest.consumer.accept(api));
-            }
-        }
+        API_REQUESTS.pump();
 
         if (!WS_REQUESTS.isEmpty()) {
             Request<WebSocket> request;
@@ -158,6 +185,10 @@ public class NetworkStuff {
         }
     }
 
+    private static RequestScheduler.Priority getPriority(UUID id) {
+        return FiguraMod.isLocal(id) || visiblePlayers.contains(id) ? RequestScheduler.Priority.HIGH : RequestScheduler.Priority.LOW;
+    }
+
     private static boolean checkUUID(UUID id) {
         if (id.version() != 4) {
             FiguraMod.debug("Voiding request for non v4 UUID \"" + id + "\" (v" + id.version() + ")");
@@ -225,15 +256,27 @@ public class NetworkStuff {
 
 
     private static void queueString(UUID owner, Function<HttpAPI, HttpRequest> request, BiConsumer<Integer, String> consumer) {
-        API_REQUESTS.add(new Request<>(owner, api -> HttpAPI.runString(request.apply(api), consumer)));
+        queueString(owner, RequestScheduler.Priority.NORMAL, request, consumer);
+    }
+
+    private static void queueString(UUID owner, RequestScheduler.Priority priority, Function<HttpAPI, HttpRequest> request, BiConsumer<Integer, String> consumer) {
+        API_REQUESTS.submit(owner, priority, (api, lastAttempt) -> HttpAPI.runString(request.apply(api), consumer, lastAttempt), null);
     }
 
-    private static void queueStream(UUID owner, Function<HttpAPI, HttpRequest> request, BiConsumer<Integer, InputStream> consumer) {
-        API_REQUESTS.add(new Request<>(owner, api -> HttpAPI.runStream(request.apply(api), consumer)));
+    private static void queueStream(UUID owner, RequestScheduler.Priority priority, Function<HttpAPI, HttpRequest> request, BiConsumer<Integer, InputStream> consumer, Runnable onCancel) {
+        API_REQUESTS.submit(owner, priority, (api, lastAttempt) -> HttpAPI.runStream(request.apply(api), consumer, lastAttempt), onCancel);
     }
 
     public static void clear(UUID requestOwner) {
-        API_REQUESTS.removeIf(request -> request.owner.equals(requestOwner));
+        API_REQUESTS.cancel(requestOwner);
+        AvatarNbtCache.cancel(requestOwner);
+    }
+
+    public static JsonObject getRequestStats() {
+        JsonObject stats = new JsonObject();
+        stats.addProperty("queued", API_REQUESTS.getQueued());
+        stats.addProperty("running", API_REQUESTS.getRunning());
+        return stats;
     }
 
     private static void responseDebug(String src, int code, String data) {
@@ -248,6 +291,7 @@ public class NetworkStuff {
 
     private static void disconnectAPI() {
         api = null;
+        subBatching = false;
         clear(Util.NIL_UUID);
     }
 
@@ -289,6 +333,9 @@ public class NetworkStuff {
 
             JsonObject limits = json.getAsJsonObject("limits");
             maxAvatarSize = limits.get("maxAvatarSize").getAsInt();
+
+            JsonArray features = json.getAsJsonArray("features");
+            subBatching = features != null && features.contains(new JsonPrimitive("sub_batch"));
         });
     }
 
@@ -296,7 +343,7 @@ public class NetworkStuff {
         if (checkUUID(user.id))
             return;
 
-        queueString(user.id, api -> api.getUser(user.id), (code, data) -> {
+        queueString(user.id, getPriority(user.id), api -> api.getUser(user.id), (code, data) -> {
             //debug
             responseDebug("getUser", code, data);
 
@@ -355,7 +402,7 @@ public class NetworkStuff {
         try {
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
             NbtIo.writeCompressed(avatar.nbt, baos);
-            queueString(Util.NIL_UUID, api -> api.uploadAvatar(id, baos.toByteArray()), (code, data) -> {
+            queueString(Util.NIL_UUID, RequestScheduler.Priority.HIGH, api -> api.uploadAvatar(id, baos.toByteArray()), (code, data) -> {
                 responseDebug("uploadAvatar", code, data);
 
                 if (code == 200) {
@@ -381,7 +428,7 @@ public class NetworkStuff {
 
     public static void deleteAvatar(String avatar) {
         String id = avatar == null || true ? "avatar" : avatar; //TODO - profile screen
-        queueString(Util.NIL_UUID, api -> api.deleteAvatar(id), (code, data) -> {
+        queueString(Util.NIL_UUID, RequestScheduler.Priority.HIGH, api -> api.deleteAvatar(id), (code, data) -> {
             responseDebug("deleteAvatar", code, data);
 
             switch (code) {
@@ -402,7 +449,7 @@ public class NetworkStuff {
             json.add(obj);
         }
 
-        queueString(Util.NIL_UUID, api -> api.setEquipped(GSON.toJson(json)), (code, data) -> {
+        queueString(Util.NIL_UUID, RequestScheduler.Priority.HIGH, api -> api.setEquipped(GSON.toJson(json)), (code, data) -> {
             responseDebug("equipAvatar", code, data);
             if (code != 200 && Configs.CONNECTION_TOASTS.value)
                 FiguraToast.sendToast(FiguraText.of("backend.equip_error"), FiguraToast.ToastType.ERROR);
@@ -410,10 +457,12 @@ public class NetworkStuff {
     }
 
     public static void getAvatar(UserData target, UUID owner, String id, String hash) {
-        if (checkUUID(target.id))
+        if (checkUUID(target.id)) {
+            AvatarNbtCache.fail(hash);
             return;
+        }
 
-        queueStream(target.id, api -> api.getAvatar(owner, id), (code, stream) -> {
+        queueStream(target.id, getPriority(target.id), api -> api.getAvatar(owner, id), (code, stream) -> {
             String s;
             try {
                 s = code == 200 ? "<avatar data>" : new String(stream.readAllBytes());
@@ -423,18 +472,22 @@ public class NetworkStuff {
             responseDebug("getAvatar", code, s);
 
             //on error
-            if (code != 200)
+            if (code != 200) {
+                AvatarNbtCache.fail(hash);
                 return;
+            }
 
             //success
             try {
                 CompoundTag nbt = NbtIo.readCompressed(stream);
+                AvatarNbtCache.complete(hash, nbt);
                 CacheAvatarLoader.save(hash, nbt);
                 target.loadAvatar(nbt);
             } catch (Exception e) {
+                AvatarNbtCache.fail(hash);
                 FiguraMod.LOGGER.error("Failed to load avatar for " + target.id, e);
             }
-        });
+        }, () -> AvatarNbtCache.fail(hash));
         downloadRate.use();
     }
 
@@ -476,45 +529,50 @@ public class NetworkStuff {
         }
     }
 
-    private static void subscribe(UUID id) {
-        if (checkUUID(id) || !checkWS())
+    // sends all the changes together, as a single message when the backend supports it
+    private static void updateSubscriptions(List<UUID> sub, List<UUID> unsub) {
+        sub.removeIf(NetworkStuff::checkUUID);
+        unsub.removeIf(NetworkStuff::checkUUID);
+        if ((sub.isEmpty() && unsub.isEmpty()) || !checkWS())
             return;
 
         WS_REQUESTS.add(new Request<>(Util.NIL_UUID, client -> {
             try {
-                ByteBuffer buffer = C2SMessageHandler.sub(id);
-                client.sendBinary(buffer.array());
-                if (debug) FiguraMod.debug("Subbed to " + id);
-            } catch (Exception e) {
-                FiguraMod.LOGGER.error("Failed to subscribe to " + id, e);
-            }
-        }));
-    }
-
-    private static void unsubscribe(UUID id) {
-        if (checkUUID(id) || !checkWS())
-            return;
+                if (subBatching && sub.size() + unsub.size() > 1) {
+                    client.sendBinary(C2SMessageHandler.subBatch(sub, unsub).array());
+                } else {
+                    // one message per change, in a single request
+                    for (UUID id : unsub)
+                        client.sendBinary(C2SMessageHandler.unsub(id).array());
+                    for (UUID id : sub)
+                        client.sendBinary(C2SMessageHandler.sub(id).array());
+                }
 
-        WS_REQUESTS.add(new Request<>(Util.NIL_UUID, client -> {
-            try {
-                ByteBuffer buffer = C2SMessageHandler.unsub(id);
-                client.sendBinary(buffer.array());
-                if (debug) FiguraMod.debug("Unsubbed to " + id);
+                if (debug) FiguraMod.debug("Subbed to " + sub + ", unsubbed to " + unsub);
             } catch (Exception e) {
-                FiguraMod.LOGGER.error("Failed to unsubscribe to " + id, e);
+                FiguraMod.LOGGER.error("Failed to update subscriptions", e);
             }
         }));
     }
 
     public static void subscribeAll() {
-        for (UUID uuid : SUBSCRIPTIONS)
-            subscribe(uuid);
+        List<UUID> sub;
+        synchronized (SUBSCRIPTIONS) {
+            sub = new ArrayList<>(SUBSCRIPTIONS);
+        }
+        updateSubscriptions(sub, new ArrayList<>());
     }
 
     public static void unsubscribeAll() {
-        for (UUID uuid : SUBSCRIPTIONS)
-            unsubscribe(uuid);
-        SUBSCRIPTIONS.clear();
+        List<UUID> unsub;
+        synchronized (SUBSCRIPTIONS) {
+            if (SUBSCRIPTIONS.isEmpty())
+                return;
+            unsub = new ArrayList<>(SUBSCRIPTIONS);
+            SUBSCRIPTIONS.clear();
+        }
+        onlineCount = onlineHash = 0;
+        updateSubscriptions(new ArrayList<>(), unsub);
     }
 
 
@@ -0,0 +1,187 @@
+package org.figuramc.figura.backend2;
+
+import org.figuramc.figura.FiguraMod;
+import org.figuramc.figura.config.Configs;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the backend http requests, up to a configurable amount at once
+ * queued requests are started from the highest priority lane first, in the order they were queued
+ * requests that failed to reach the backend, or that the backend asked to slow down, are retried with an increasing delay
+ */
+public class RequestScheduler {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY = 1000;
+
+    private final Supplier<HttpAPI> api;
+    private final Map<Priority, ArrayDeque<Task>> lanes = new EnumMap<>(Priority.class);
+    // tasks waiting to be retried, so they can still be cancelled
+    private final Set<Task> retrying = new HashSet<>();
+    private int running;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool(daemonFactory("Figura Backend Request #"));
+    private final ScheduledExecutorService retryTimer = Executors.newSingleThreadScheduledExecutor(daemonFactory("Figura Backend Retry #"));
+
+    public RequestScheduler(Supplier<HttpAPI> api) {
+        this.api = api;
+        for (Priority priority : Priority.values())
+            lanes.put(priority, new ArrayDeque<>());
+    }
+
+    /**
+     * Queues a request
+     * @param onCancel called when the request is dropped without being handled, either cancelled or out of retries
+     */
+    public void submit(UUID owner, Priority priority, Call call, Runnable onCancel) {
+        synchronized (this) {
+            lanes.get(priority).add(new Task(owner, priority, call, onCancel, 0));
+        }
+        pump();
+    }
+
+    // drops every queued request of the owner, requests already running are left to finish
+    public void cancel(UUID owner) {
+        List<Task> cancelled = new ArrayList<>();
+        synchronized (this) {
+            for (ArrayDeque<Task> lane : lanes.values())
+                lane.removeIf(task -> task.owner.equals(owner) && cancelled.add(task));
+            retrying.removeIf(task -> task.owner.equals(owner) && cancelled.add(task));
+        }
+
+        for (Task task : cancelled) {
+            if (task.onCancel != null)
+                task.onCancel.run();
+        }
+    }
+
+    public synchronized int getQueued() {
+        int queued = retrying.size();
+        for (ArrayDeque<Task> lane : lanes.values())
+            queued += lane.size();
+        return queued;
+    }
+
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    // starts as many queued requests as the limit allows
+    public void pump() {
+        HttpAPI api = this.api.get();
+        if (api == null)
+            return;
+
+        synchronized (this) {
+            int limit = Math.max(Configs.BACKEND_CONCURRENCY.value, 1);
+            while (running < limit) {
+                Task task = poll();
+                if (task == null)
+                    return;
+
+                running++;
+                executor.execute(() -> run(task, api));
+            }
+        }
+    }
+
+    private Task poll() {
+        for (ArrayDeque<Task> lane : lanes.values()) {
+            Task task = lane.poll();
+            if (task != null)
+                return task;
+        }
+        return null;
+    }
+
+    private void run(Task task, HttpAPI api) {
+        boolean lastAttempt = task.attempt + 1 >= MAX_ATTEMPTS;
+        boolean failed = false;
+        try {
+            failed = task.call.run(api, lastAttempt);
+        } catch (Exception e) {
+            FiguraMod.LOGGER.error("", e);
+        } finally {
+            synchronized (this) {
+                running--;
+            }
+        }
+
+        if (failed && lastAttempt) {
+            // out of retries, the request is dropped
+            if (task.onCancel != null)
+                task.onCancel.run();
+        } else if (failed) {
+            Task next = new Task(task.owner, task.priority, task.call, task.onCancel, task.attempt + 1);
+            long delay = RETRY_DELAY << task.attempt;
+            FiguraMod.debug("Retrying backend request in {}ms", delay);
+
+            synchronized (this) {
+                retrying.add(next);
+            }
+            retryTimer.schedule(() -> {
+                synchronized (this) {
+                    // cancelled while waiting
+                    if (!retrying.remove(next))
+                        return;
+                    lanes.get(next.priority).addFirst(next);
+                }
+                pump();
+            }, delay, TimeUnit.MILLISECONDS);
+        }
+
+        pump();
+    }
+
+    private static ThreadFactory daemonFactory(String name) {
+        return new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(@NotNull Runnable runnable) {
+                Thread thread = new Thread(runnable, name + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    public enum Priority {
+        // the local player, and players in render distance
+        HIGH,
+        NORMAL,
+        // players only seen in the tab list
+        LOW
+    }
+
+    @FunctionalInterface
+    public interface Call {
+        /**
+         * @param lastAttempt when true, the response must be handled even if it failed
+         * @return true when the request failed without being handled, so it should be retried
+         */
+        boolean run(HttpAPI api, boolean lastAttempt);
+    }
+
+    // compared by identity, as the same call can be queued more than once
+    private static final class Task {
+        private final UUID owner;
+        private final Priority priority;
+        private final Call call;
+        private final Runnable onCancel;
+        private final int attempt;
+
+        private Task(UUID owner, Priority priority, Call call, Runnable onCancel, int attempt) {
+            this.owner = owner;
+            this.priority = priority;
+            this.call = call;
+            this.onCancel = onCancel;
+            this.attempt = attempt;
+        }
+    }
+}
@@ -5,6 +5,7 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.UUID;
 
 public class C2SMessageHandler {
@@ -14,7 +15,8 @@ public class C2SMessageHandler {
             TOKEN = 0,
             PING = 1,
             SUB = 2, // owo
-            UNSUB = 3;
+            UNSUB = 3,
+            SUB_BATCH = 4;
 
     public static ByteBuffer auth(String token) throws IOException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
@@ -62,6 +64,23 @@ public class C2SMessageHandler {
         return ByteBuffer.wrap(baos.toByteArray());
     }
 
+    // several subscription changes at once, only for backends advertising the "sub_batch" feature
+    public static ByteBuffer subBatch(Collection<UUID> sub, Collection<UUID> unsub) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(baos);
+
+        dos.writeByte(SUB_BATCH);
+        dos.writeInt(sub.size());
+        for (UUID id : sub)
+            writeUUID(id, dos);
+        dos.writeInt(unsub.size());
+        for (UUID id : unsub)
+            writeUUID(id, dos);
+        dos.close();
+
+        return ByteBuffer.wrap(baos.toByteArray());
+    }
+
     public static void writeUUID(UUID id, DataOutputStream dos) throws IOException {
         dos.writeLong(id.getMostSignificantBits());
         dos.writeLong(id.getLeastSignificantBits());
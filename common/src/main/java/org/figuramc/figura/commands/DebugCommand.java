@@ -18,13 +18,18 @@ import org.figuramc.figura.FiguraMod;
 import org.figuramc.figura.animation.Animation;
 import org.figuramc.figura.avatar.Avatar;
 import org.figuramc.figura.avatar.AvatarManager;
+import org.figuramc.figura.avatar.local.AvatarNbtCache;
 import org.figuramc.figura.avatar.local.CacheAvatarLoader;
 import org.figuramc.figura.avatar.local.LocalAvatarFetcher;
 import org.figuramc.figura.avatar.local.LocalAvatarLoader;
 import org.figuramc.figura.backend2.NetworkStuff;
 import org.figuramc.figura.config.ConfigManager;
 import org.figuramc.figura.config.ConfigType;
+import org.figuramc.figura.font.Emojis;
+import org.figuramc.figura.lua.LuaScriptCache;
 import org.figuramc.figura.lua.api.ConfigAPI;
+import org.figuramc.figura.lua.api.particle.ParticleAPI;
+import org.figuramc.figura.lua.api.sound.SoundAPI;
 import org.figuramc.figura.permissions.PermissionManager;
 import org.figuramc.figura.permissions.PermissionPack;
 import org.figuramc.figura.permissions.Permissions;
@@ -107,12 +112,23 @@ class DebugCommand {
         meta.addProperty("backendStatus", NetworkStuff.backendStatus);
         meta.addProperty("backendConnected", NetworkStuff.isConnected());
         meta.addProperty("backendDisconnectedReason", NetworkStuff.disconnectedReason);
+        meta.add("backendRequests", NetworkStuff.getRequestStats());
         meta.addProperty("uploaded", AvatarManager.localUploaded);
         meta.addProperty("lastLoadedPath", Objects.toString(LocalAvatarLoader.getLastLoadedPath(), null));
         meta.addProperty("panicMode", AvatarManager.panic);
 
         root.add("meta", meta);
 
+        // caches
+        JsonObject caches = new JsonObject();
+
+        caches.add("scripts", LuaScriptCache.getStats());
+        caches.add("emojis", Emojis.getCacheStats());
+        caches.add("avatars", AvatarNbtCache.getStats());
+        caches.add("avatarStore", CacheAvatarLoader.getStats());
+
+        root.add("caches", caches);
+
         // config
         JsonObject config = new JsonObject();
 
@@ -227,6 +243,9 @@ class DebugCommand {
         inst.addProperty("worldTickInstructions", avatar.worldTick.pre);
         inst.addProperty("particlesRemaining", avatar.particlesRemaining.peek());
         inst.addProperty("soundsRemaining", avatar.soundsRemaining.peek());
+        inst.addProperty("liveParticles", ParticleAPI.getParticleEngine().figura$getParticleCount(avatar.owner));
+        inst.addProperty("liveSounds", SoundAPI.getSoundEngine().figura$getSoundCount(avatar.owner));
+        inst.addProperty("textureUploadBytes", avatar.lastTextureUploadBytes);
 
         a.add("instructions", inst);
 
@@ -5,12 +5,15 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.network.chat.Component;
 import org.figuramc.figura.FiguraMod;
 import org.figuramc.figura.avatar.AvatarManager;
+import org.figuramc.figura.avatar.local.AvatarNbtCache;
 import org.figuramc.figura.avatar.local.CacheAvatarLoader;
 import org.figuramc.figura.avatar.local.LocalAvatarFetcher;
 import org.figuramc.figura.backend2.NetworkStuff;
+import org.figuramc.figura.font.Emojis;
 import org.figuramc.figura.gui.FiguraToast;
 import org.figuramc.figura.gui.screens.ConfigScreen;
 import org.figuramc.figura.lua.FiguraLuaPrinter;
+import org.figuramc.figura.lua.LuaScriptCache;
 import org.figuramc.figura.lua.api.ConfigAPI;
 import org.figuramc.figura.permissions.PermissionManager;
 import org.figuramc.figura.permissions.Permissions;
@@ -123,7 +126,15 @@ public class Configs {
             super.onChange();
             FiguraLuaPrinter.updateDecimalFormatting();
         }
-    };
+    },
+            SCRIPT_CACHE_SIZE = new ConfigType.PositiveIntConfig("script_cache_size", SCRIPT, 16) {
+        @Override
+        public void onChange() {
+            super.onChange();
+            LuaScriptCache.trim();
+        }
+    },
+            RESOURCE_COMPRESSION = new ConfigType.PositiveIntConfig("resource_compression", SCRIPT, 6);
 
 
     // -- RENDERING -- // 
@@ -231,6 +242,14 @@ public class Configs {
                 }
             },
             EMOJIS = new ConfigType.EnumConfig("emojis", MISC, 1, 3);
+    public static final ConfigType.PositiveIntConfig
+            EMOJI_CACHE_SIZE = new ConfigType.PositiveIntConfig("emoji_cache_size", MISC, 256) {
+        @Override
+        public void onChange() {
+            super.onChange();
+            Emojis.trimCache();
+        }
+    };
     public static final ConfigType.BoolConfig
             EASTER_EGGS = new ConfigType.BoolConfig("easter_eggs", MISC, true);
 
@@ -279,6 +298,16 @@ public class Configs {
             NetworkStuff.reAuth();
         }
     };
+    public static final ConfigType.PositiveIntConfig
+            BACKEND_CONCURRENCY = new ConfigType.PositiveIntConfig("backend_concurrency", DEV, 4);
+    public static final ConfigType.PositiveIntConfig
+            AVATAR_CACHE_SIZE = new ConfigType.PositiveIntConfig("avatar_cache_size", DEV, 64) {
+        @Override
+        public void onChange() {
+            super.onChange();
+            AvatarNbtCache.trim();
+        }
+    };
     @SuppressWarnings("unused")
     public static final ConfigType.ButtonConfig
             CLEAR_CACHE = new ConfigType.ButtonConfig("clear_cache", DEV, () -> {
@@ -286,6 +315,8 @@ public class Configs {
         LocalAvatarFetcher.clearCache();
         ConfigScreen.clearCache();
         FiguraRuntimeResources.clearCache();
+        LuaScriptCache.clear();
+        Emojis.clearCache();
         FiguraToast.sendToast(FiguraText.of("toast.cache_clear"));
     }),
             REDOWNLOAD_ASSETS = new ConfigType.ButtonConfig("redownload_assets", DEV, () -> {
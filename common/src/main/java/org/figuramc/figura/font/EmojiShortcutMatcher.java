@@ -0,0 +1,128 @@
+package org.figuramc.figura.font;
+
+import java.util.*;
+
+/**
+ * Aho-Corasick automaton over every emoji shortcut, built once per emoji reload
+ * matches never overlap, the leftmost shortcut wins, and the longest one when several start at the same char
+ */
+public class EmojiShortcutMatcher {
+
+    public static final EmojiShortcutMatcher EMPTY = new EmojiShortcutMatcher(List.of());
+
+    private final Node root = new Node(0);
+    private final boolean empty;
+
+    public EmojiShortcutMatcher(Collection<String> shortcuts) {
+        this.empty = shortcuts.isEmpty();
+
+        // trie
+        Map<Node, Map<Character, Node>> children = new HashMap<>();
+        for (String shortcut : shortcuts) {
+            Node node = root;
+            for (int i = 0; i < shortcut.length(); i++) {
+                int depth = i + 1;
+                node = children.computeIfAbsent(node, n -> new HashMap<>()).computeIfAbsent(shortcut.charAt(i), c -> new Node(depth));
+            }
+            node.shortcut = shortcut;
+        }
+
+        // failure links, breadth first so every parent is done before its children
+        root.fail = root;
+        Deque<Node> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            Map<Character, Node> next = children.getOrDefault(node, Map.of());
+
+            node.keys = new char[next.size()];
+            node.next = new Node[next.size()];
+            int i = 0;
+            for (Map.Entry<Character, Node> entry : new TreeMap<>(next).entrySet()) {
+                char c = entry.getKey();
+                Node child = entry.getValue();
+                node.keys[i] = c;
+                node.next[i++] = child;
+
+                child.fail = node == root ? root : step(node.fail, c);
+                child.match = child.shortcut != null ? child : child.fail.match;
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Finds all shortcuts in the given text, in order
+     */
+    public void match(String text, MatchConsumer consumer) {
+        if (empty)
+            return;
+
+        Node state = root;
+        Node best = null;
+        int bestEnd = -1;
+
+        int i = 0;
+        while (true) {
+            if (i < text.length()) {
+                state = step(state, text.charAt(i++));
+
+                // longest shortcut ending here, keep it if it starts before (or is longer than) the current best
+                Node match = state.match;
+                if (match != null) {
+                    int start = i - match.depth;
+                    if (best == null || start < bestEnd - best.depth || (start == bestEnd - best.depth && match.depth > best.depth)) {
+                        best = match;
+                        bestEnd = i;
+                    }
+                }
+
+                // wait while a longer or earlier shortcut could still match
+                if (best == null || i - state.depth <= bestEnd - best.depth)
+                    continue;
+            } else if (best == null) {
+                return;
+            }
+
+            consumer.accept(bestEnd - best.depth, bestEnd, best.shortcut);
+            i = bestEnd;
+            state = root;
+            best = null;
+        }
+    }
+
+    private Node step(Node state, char c) {
+        while (true) {
+            Node next = state.get(c);
+            if (next != null)
+                return next;
+            if (state == root)
+                return root;
+            state = state.fail;
+        }
+    }
+
+    private static class Node {
+        private final int depth;
+        private char[] keys;
+        private Node[] next;
+        private Node fail;
+        private String shortcut;
+        // this node or the deepest node in its failure chain that ends a shortcut
+        private Node match;
+
+        private Node(int depth) {
+            this.depth = depth;
+        }
+
+        private Node get(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? next[i] : null;
+        }
+    }
+
+    @FunctionalInterface
+    public interface MatchConsumer {
+        void accept(int start, int end, String shortcut);
+    }
+}
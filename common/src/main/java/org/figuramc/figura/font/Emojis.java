@@ -8,6 +8,7 @@ import net.minecraft.network.chat.Style;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.packs.resources.Resource;
 import org.figuramc.figura.FiguraMod;
+import org.figuramc.figura.config.Configs;
 import org.figuramc.figura.utils.FiguraResourceListener;
 import org.figuramc.figura.utils.TextUtils;
 
@@ -21,6 +22,12 @@ public class Emojis {
 
     private static final Map<String, EmojiContainer> EMOJIS = new HashMap<>();
     private static final Map<String, EmojiContainer> SHORTCUT_LOOKUP = new HashMap<>();
+    private static final Map<String, EmojiContainer> ALIAS_LOOKUP = new HashMap<>();
+    private static EmojiShortcutMatcher shortcutMatcher = EmojiShortcutMatcher.EMPTY;
+
+    // converted texts, keyed by their source component or json, so unchanged text is not parsed every frame
+    private static final LinkedHashMap<Object, MutableComponent> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+    private static int cacheHits, cacheMisses;
 
     public static final char DELIMITER = ':';
     public static final char ESCAPE = '\\';
@@ -28,6 +35,8 @@ public class Emojis {
     // listener to load emojis from the resource pack
     public static final FiguraResourceListener RESOURCE_LISTENER = FiguraResourceListener.createResourceListener("emojis", manager -> {
         EMOJIS.clear();
+        SHORTCUT_LOOKUP.clear();
+        ALIAS_LOOKUP.clear();
 
         for (Map.Entry<ResourceLocation, Resource> emojis : manager.listResources("emojis", location -> location.getNamespace().equals(FiguraMod.MOD_ID) && location.getPath().endsWith(".json")).entrySet()) {
             ResourceLocation location = emojis.getKey();
@@ -51,6 +60,13 @@ public class Emojis {
             }
         }
 
+        // lookups used when converting text
+        for (EmojiContainer container : EMOJIS.values())
+            for (String alias : container.getLookup().getNames())
+                ALIAS_LOOKUP.putIfAbsent(alias, container);
+        shortcutMatcher = new EmojiShortcutMatcher(SHORTCUT_LOOKUP.keySet());
+        clearCache();
+
         // check for duplicates
         HashMap<String, List<String>> duplicates = new HashMap<>();
         HashMap<String, String> map = new HashMap<>();
@@ -95,6 +111,72 @@ public class Emojis {
     }
 
     public static MutableComponent applyEmojis(Component text) {
+        return getCached(text);
+    }
+
+    public static MutableComponent applyEmojis(String json) {
+        return getCached(json);
+    }
+
+    private static MutableComponent getCached(Object key) {
+        MutableComponent cached;
+        synchronized (CACHE) {
+            cached = CACHE.get(key);
+            if (cached != null) cacheHits++;
+            else cacheMisses++;
+        }
+
+        if (cached == null) {
+            cached = convert(key instanceof String json ? TextUtils.tryParseJson(json) : (Component) key);
+
+            // callers keep modifying their components, which would change the key while it is cached
+            if (key instanceof Component text)
+                key = deepCopy(text);
+
+            synchronized (CACHE) {
+                CACHE.put(key, cached);
+                trimCache();
+            }
+        }
+
+        // callers may still modify the returned component
+        return cached.copy();
+    }
+
+    private static Component deepCopy(Component text) {
+        MutableComponent copy = MutableComponent.create(text.getContents()).setStyle(text.getStyle());
+        for (Component sibling : text.getSiblings())
+            copy.append(deepCopy(sibling));
+        return copy;
+    }
+
+    public static void trimCache() {
+        synchronized (CACHE) {
+            Iterator<MutableComponent> iterator = CACHE.values().iterator();
+            while (CACHE.size() > Configs.EMOJI_CACHE_SIZE.value && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+        }
+    }
+
+    public static JsonObject getCacheStats() {
+        JsonObject stats = new JsonObject();
+        synchronized (CACHE) {
+            stats.addProperty("entries", CACHE.size());
+            stats.addProperty("hits", cacheHits);
+            stats.addProperty("misses", cacheMisses);
+        }
+        return stats;
+    }
+
+    private static MutableComponent convert(Component text) {
         Component newText = TextUtils.parseLegacyFormatting(text);
         MutableComponent ret = Component.empty();
         newText.visit((style, string) -> {
@@ -168,33 +250,9 @@ public class Emojis {
         for (int i = 0; i < strings.size(); i++) {
             String s = strings.get(i);
 
-            // even: append text
+            // even: append text, replacing all emoji shortcuts
             if (i % 2 == 0) {
-                // Find all emoji shortcuts in string
-                List<String> shortcuts = SHORTCUT_LOOKUP.keySet().stream().filter(s::contains).toList();
-
-                // Replace all shortcuts
-                if (shortcuts.size() > 0) {
-                    while (s.length() > 0) {
-                        boolean anyFound = false;
-                        for (String shortcut : shortcuts) {
-                            if (s.startsWith(shortcut)) {
-                                s = s.substring(shortcut.length());
-                                result.append(SHORTCUT_LOOKUP.get(shortcut).getShortcutComponent(shortcut));
-                                anyFound = true;
-                                break;
-                            }
-                        }
-                        if (!anyFound) {
-                            result.append(String.valueOf(s.charAt(0)));
-                            s = s.substring(1);
-                        }
-                    }
-                }
-                // Otherwise append as normal
-                else {
-                    result.append(s);
-                }
+                appendShortcuts(result, s);
             }
             // odd: format and append emoji
             else {
@@ -205,6 +263,21 @@ public class Emojis {
         return result;
     }
 
+    private static void appendShortcuts(MutableComponent result, String s) {
+        int[] last = {0};
+        shortcutMatcher.match(s, (start, end, shortcut) -> {
+            if (start > last[0])
+                result.append(s.substring(last[0], start));
+            result.append(SHORTCUT_LOOKUP.get(shortcut).getShortcutComponent(shortcut));
+            last[0] = end;
+        });
+
+        if (last[0] == 0)
+            result.append(s);
+        else if (last[0] < s.length())
+            result.append(s.substring(last[0]));
+    }
+
     private static void appendEmoji(MutableComponent result, String s, Function<String, Component> converter) {
         Component emoji = converter.apply(s);
         if (emoji != null) {
@@ -215,23 +288,13 @@ public class Emojis {
     }
 
     public static Component getEmoji(String emojiAlias) {
-        for (EmojiContainer container : EMOJIS.values()) {
-            Component emoji = container.getEmojiComponent(emojiAlias);
-            if (emoji != null) {
-                return emoji;
-            }
-        }
-        return null;
+        EmojiContainer container = ALIAS_LOOKUP.get(emojiAlias);
+        return container == null ? null : container.getEmojiComponent(emojiAlias);
     }
 
     public static Component getEmoji(String emojiAlias, MutableComponent hover) {
-        for (EmojiContainer container : EMOJIS.values()) {
-            Component emoji = container.getEmojiComponent(emojiAlias, hover);
-            if (emoji != null) {
-                return emoji;
-            }
-        }
-        return null;
+        EmojiContainer container = ALIAS_LOOKUP.get(emojiAlias);
+        return container == null ? null : container.getEmojiComponent(emojiAlias, hover);
     }
 
     public static EmojiContainer getCategoryByFont(ResourceLocation location) {
@@ -292,7 +292,7 @@ public class ActionWheel {
                 int textX = x + (int) (Math.round(xOff));
                 int textY = y + (int) (Math.round(yOff + (internal ? 9 * scale : -font.lineHeight / 2f)));
 
-                Component text = TextUtils.replaceInText(Emojis.applyEmojis(TextUtils.tryParseJson(title)), "\n|\\\\n", " ");
+                Component text = TextUtils.replaceInText(Emojis.applyEmojis(title), "\n|\\\\n", " ");
                 int textWidth = font.width(text);
 
                 if (internal) {
@@ -316,7 +316,7 @@ public class ActionWheel {
             return;
 
         // vars
-        Component text = Emojis.applyEmojis(TextUtils.tryParseJson(selectedTitle));
+        Component text = Emojis.applyEmojis(selectedTitle);
         List<Component> list = TextUtils.splitText(text, "\n");
         int height = font.lineHeight * list.size();
 
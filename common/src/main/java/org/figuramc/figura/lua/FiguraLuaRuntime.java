@@ -366,7 +366,7 @@ public class FiguraLuaRuntime {
         // load
         String directory = PathUtils.computeSafeString(path.getParent());
         String fileName = PathUtils.computeSafeString(path.getFileName());
-        Varargs value = userGlobals.load(src, name).invoke(LuaValue.varargsOf(LuaValue.valueOf(directory), LuaValue.valueOf(fileName)));
+        Varargs value = LuaScriptCache.load(userGlobals, name, src, userGlobals).invoke(LuaValue.varargsOf(LuaValue.valueOf(directory), LuaValue.valueOf(fileName)));
         if (value == LuaValue.NIL)
             value = LuaValue.TRUE;
 
@@ -427,8 +427,14 @@ public class FiguraLuaRuntime {
     };
 
     public void setInstructionLimit(int limit) {
-        userGlobals.running.state.bytecodes = 0;
-        setHookFunction.invoke(LuaValue.varargsOf(onReachedLimit, LuaValue.EMPTYSTRING, LuaValue.valueOf(Math.max(limit, 1))));
+        LuaThread.State state = userGlobals.running.state;
+        state.bytecodes = 0;
+
+        // the hook only needs to be installed once per thread, after that updating its count is enough
+        if (state.hookfunc == onReachedLimit)
+            state.hookcount = Math.max(limit, 1);
+        else
+            setHookFunction.invoke(LuaValue.varargsOf(onReachedLimit, LuaValue.EMPTYSTRING, LuaValue.valueOf(Math.max(limit, 1))));
     }
 
     public int getInstructions() {
@@ -442,10 +448,25 @@ public class FiguraLuaRuntime {
     // script execution //
 
     public LuaValue load(String name, String src) {
-        return userGlobals.load(src, name, userGlobals);
+        return LuaScriptCache.load(userGlobals, name, src, userGlobals);
     }
 
     public Varargs run(Object toRun, Avatar.Instructions limit, Object... args) {
+        // resolve the event first, so empty events can be skipped before any conversion
+        LuaEvent event = null;
+        if (toRun instanceof LuaEvent luaEvent)
+            event = luaEvent;
+        else if (toRun instanceof EventsAPI.EventType type)
+            event = events.get(type);
+        else if (toRun instanceof String name)
+            event = events.__index(name);
+
+        // nothing registered, piped events still need to return their arguments
+        if (event != null && !event.isPiped() && !event.hasListeners()) {
+            limit.use(0);
+            return LuaValue.NONE;
+        }
+
         // parse args
         LuaValue[] values = new LuaValue[args.length];
         for (int i = 0; i < values.length; i++)
@@ -459,10 +480,8 @@ public class FiguraLuaRuntime {
         // get and call event
         try {
             Varargs ret;
-            if (toRun instanceof LuaEvent event)
+            if (event != null)
                 ret = event.call(val);
-            else if (toRun instanceof String event)
-                ret = events.__index(event).call(val);
             else if (toRun instanceof LuaValue func)
                 ret = func.invoke(val);
             else
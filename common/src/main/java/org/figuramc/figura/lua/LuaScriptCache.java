@@ -0,0 +1,127 @@
+package org.figuramc.figura.lua;
+
+import com.google.gson.JsonObject;
+import org.figuramc.figura.config.Configs;
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaError;
+import org.luaj.vm2.LuaFunction;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Prototype;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Compiled scripts shared by every lua runtime
+ * scripts are keyed by their chunk name and a hash of their source, so reloading an unchanged avatar,
+ * or the same avatar being worn by many players, only compiles each script once
+ */
+public class LuaScriptCache {
+
+    private static final LinkedHashMap<String, CachedPrototype> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+    private static long memoryUsage = 0;
+    private static int hits, misses;
+
+    public static LuaFunction load(Globals globals, String name, String src, LuaValue environment) {
+        Prototype prototype = getPrototype(globals, name, src);
+        try {
+            return globals.loader.load(prototype, name, environment);
+        } catch (LuaError e) {
+            throw e;
+        } catch (Exception e) {
+            throw new LuaError("load " + name + ": " + e);
+        }
+    }
+
+    private static Prototype getPrototype(Globals globals, String name, String src) {
+        byte[] bytes = src.getBytes(StandardCharsets.UTF_8);
+        String key = name + ":" + hash(bytes);
+
+        synchronized (CACHE) {
+            CachedPrototype cached = CACHE.get(key);
+            if (cached != null) {
+                hits++;
+                return cached.prototype;
+            }
+            misses++;
+        }
+
+        // compile outside the lock, as avatars can be loaded in parallel
+        Prototype prototype;
+        try {
+            prototype = globals.compilePrototype(new ByteArrayInputStream(bytes), name);
+        } catch (LuaError e) {
+            throw e;
+        } catch (Exception e) {
+            throw new LuaError("load " + name + ": " + e);
+        }
+
+        synchronized (CACHE) {
+            CachedPrototype entry = new CachedPrototype(prototype, estimateSize(prototype));
+            CachedPrototype old = CACHE.put(key, entry);
+            if (old != null)
+                memoryUsage -= old.size;
+            memoryUsage += entry.size;
+            trim();
+        }
+
+        return prototype;
+    }
+
+    public static void trim() {
+        synchronized (CACHE) {
+            long max = Configs.SCRIPT_CACHE_SIZE.value * 1024L * 1024L;
+            Iterator<CachedPrototype> iterator = CACHE.values().iterator();
+            while (memoryUsage > max && iterator.hasNext()) {
+                memoryUsage -= iterator.next().size;
+                iterator.remove();
+            }
+        }
+    }
+
+    public static void clear() {
+        synchronized (CACHE) {
+            CACHE.clear();
+            memoryUsage = 0;
+        }
+    }
+
+    public static JsonObject getStats() {
+        JsonObject stats = new JsonObject();
+        synchronized (CACHE) {
+            stats.addProperty("scripts", CACHE.size());
+            stats.addProperty("memoryUsage", memoryUsage);
+            stats.addProperty("hits", hits);
+            stats.addProperty("misses", misses);
+        }
+        return stats;
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // rough size in memory of a compiled prototype and its children
+    private static long estimateSize(Prototype prototype) {
+        long size = 64;
+        size += prototype.code.length * 4L;
+        size += prototype.k.length * 16L;
+        size += prototype.lineinfo.length * 4L;
+        size += prototype.locvars.length * 32L;
+        size += prototype.upvalues.length * 32L;
+        for (Prototype child : prototype.p)
+            size += estimateSize(child);
+        return size;
+    }
+
+    private record CachedPrototype(Prototype prototype, long size) {}
+}
@@ -8,19 +8,33 @@ import org.luaj.vm2.lib.OneArgFunction;
 import org.luaj.vm2.lib.TwoArgFunction;
 import org.luaj.vm2.lib.VarArgFunction;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * One LuaTypeManager per LuaRuntime, so that people can be allowed to edit the metatables within.
  */
 public class LuaTypeManager {
 
+    // the reflection results are the same for every runtime, so they are shared by all of them
+    private static final Map<Class<?>, Method[]> WHITELISTED_METHODS = new ConcurrentHashMap<>();
+    private static final Map<Method, MethodBinding> METHOD_BINDINGS = new ConcurrentHashMap<>();
+
     private final Map<Class<?>, LuaTable> metatables = new HashMap<>();
 
+    private static Method[] getWhitelistedMethods(Class<?> clazz) {
+        return WHITELISTED_METHODS.computeIfAbsent(clazz, someClass ->
+                Arrays.stream(someClass.getDeclaredMethods()).filter(method -> method.isAnnotationPresent(LuaWhitelist.class)).toArray(Method[]::new)
+        );
+    }
+
     public void generateMetatableFor(Class<?> clazz) {
         if (metatables.containsKey(clazz))
             return;
@@ -37,10 +51,7 @@ public class LuaTypeManager {
         LuaTable indexTable = new LuaTable();
         Class<?> currentClass = clazz;
         while (currentClass.isAnnotationPresent(LuaWhitelist.class)) {
-            for (Method method : currentClass.getDeclaredMethods()) {
-                if (!method.isAnnotationPresent(LuaWhitelist.class)) {
-                    continue;
-                }
+            for (Method method : getWhitelistedMethods(currentClass)) {
                 String name = method.getName();
                 if (name.startsWith("__")) { // metamethods
                     if (metatable.rawget(name) == LuaValue.NIL) { // Only add the most recently declared metamethod, in the most specific subclass.
@@ -105,7 +116,7 @@ public class LuaTypeManager {
         }
     }
 
-    private final Map<Class<?>, String> namesCache = new HashMap<>();
+    private static final Map<Class<?>, String> namesCache = new ConcurrentHashMap<>();
     public String getTypeName(Class<?> clazz) {
         return namesCache.computeIfAbsent(clazz, someClass -> {
             if (someClass.isAnnotationPresent(LuaTypeDoc.class))
@@ -123,17 +134,90 @@ public class LuaTypeManager {
         return result;
     }
 
+    private interface ArgumentConverter {
+        Object convert(LuaTypeManager manager, Varargs args, int index);
+    }
+
+    // resolved once per wrapped method, instead of matching the type names on every call
+    private static ArgumentConverter getConverter(Class<?> type) {
+        return switch (type.getName()) {
+            case "java.lang.Number", "java.lang.Double", "double" -> (m, args, i) -> args.checkdouble(i);
+            case "java.lang.String" -> (m, args, i) -> args.checkjstring(i);
+            case "java.lang.Boolean", "boolean" -> (m, args, i) -> args.toboolean(i);
+            case "java.lang.Float", "float" -> (m, args, i) -> (float) args.checkdouble(i);
+            case "java.lang.Integer", "int" -> (m, args, i) -> args.checkint(i);
+            case "java.lang.Long", "long" -> (m, args, i) -> args.checklong(i);
+            case "org.luaj.vm2.LuaTable" -> (m, args, i) -> args.checktable(i);
+            case "org.luaj.vm2.LuaFunction" -> (m, args, i) -> args.checkfunction(i);
+            case "org.luaj.vm2.LuaValue" -> (m, args, i) -> args.arg(i);
+            case "java.lang.Object" -> (m, args, i) -> m.luaToJava(args.arg(i));
+            default -> type.isArray() ? (m, args, i) -> m.luaVarargToJava(args, i, type) : (m, args, i) -> args.checkuserdata(i, type);
+        };
+    }
+
+    private static Object getDefaultValue(Class<?> type) {
+        return switch (type.getName()) {
+            case "double" -> 0D;
+            case "int" -> 0;
+            case "long" -> 0L;
+            case "float" -> 0f;
+            case "boolean" -> false;
+            default -> null;
+        };
+    }
+
+    // a handle with the type (Object, Object[])Object, so every method can be called through invokeExact
+    private static MethodHandle getInvoker(Method method) {
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+            if (Modifier.isStatic(method.getModifiers()))
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            handle = handle.asSpreader(Object[].class, method.getParameterCount());
+            return handle.asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    // everything about a whitelisted method that does not depend on the runtime
+    private static class MethodBinding {
+
+        private final boolean isStatic;
+        private final Class<?> clazz;
+        private final Class<?>[] argumentTypes;
+        private final boolean[] requiredNotNil;
+        private final ArgumentConverter[] converters;
+        private final Object[] defaultArgs;
+        private final boolean skipSelf;
+        private final MethodHandle invoker;
+
+        private MethodBinding(Method method) {
+            this.isStatic = Modifier.isStatic(method.getModifiers());
+            this.clazz = method.getDeclaringClass();
+            this.argumentTypes = method.getParameterTypes();
+            this.requiredNotNil = getRequiredNotNil(method);
+            this.converters = Arrays.stream(argumentTypes).map(LuaTypeManager::getConverter).toArray(ArgumentConverter[]::new);
+            this.defaultArgs = Arrays.stream(argumentTypes).map(LuaTypeManager::getDefaultValue).toArray();
+            this.skipSelf = isStatic && argumentTypes.length > 0 && !argumentTypes[0].isAssignableFrom(clazz);
+            this.invoker = getInvoker(method);
+        }
+    }
+
     public VarArgFunction getWrapper(Method method) {
+        MethodBinding binding = METHOD_BINDINGS.computeIfAbsent(method, MethodBinding::new);
         return new VarArgFunction() {
 
-            private final boolean isStatic = Modifier.isStatic(method.getModifiers());
+            private final boolean isStatic = binding.isStatic;
             private Object caller;
 
 
-            private final Class<?> clazz = method.getDeclaringClass();
-            private final Class<?>[] argumentTypes = method.getParameterTypes();
+            private final Class<?> clazz = binding.clazz;
+            private final Class<?>[] argumentTypes = binding.argumentTypes;
             private final Object[] actualArgs = new Object[argumentTypes.length];
-            private final boolean[] requiredNotNil = getRequiredNotNil(method);
+            private final boolean[] requiredNotNil = binding.requiredNotNil;
+            private final ArgumentConverter[] converters = binding.converters;
+            private final Object[] defaultArgs = binding.defaultArgs;
+            private final MethodHandle invoker = binding.invoker;
 
             @Override
             public Varargs invoke(Varargs args) {
@@ -142,7 +226,7 @@ public class LuaTypeManager {
                     caller = args.checkuserdata(1, clazz);
 
                 // dirty hack for QOL of ignoring the first argument if the method is static and the arg matches the class type
-                int offset = isStatic && argumentTypes.length > 0 && !argumentTypes[0].isAssignableFrom(clazz) && args.isuserdata(1) && clazz.isAssignableFrom(args.checkuserdata(1).getClass()) ? 1 : 0;
+                int offset = binding.skipSelf && args.isuserdata(1) && clazz.isAssignableFrom(args.checkuserdata(1).getClass()) ? 1 : 0;
 
                 // Fill in actualArgs from args
                 for (int i = 0; i < argumentTypes.length; i++) {
@@ -152,19 +236,7 @@ public class LuaTypeManager {
                         throw new LuaError("bad argument: " + method.getName() + " " + argIndex + " do not allow nil values, expected " + FiguraDocsManager.getNameFor(argumentTypes[i]));
                     if (argIndex <= args.narg() && !nil) {
                         try {
-                            actualArgs[i] = switch (argumentTypes[i].getName()) {
-                                case "java.lang.Number", "java.lang.Double", "double" -> args.checkdouble(argIndex);
-                                case "java.lang.String" -> args.checkjstring(argIndex);
-                                case "java.lang.Boolean", "boolean" -> args.toboolean(argIndex);
-                                case "java.lang.Float", "float" -> (float) args.checkdouble(argIndex);
-                                case "java.lang.Integer", "int" -> args.checkint(argIndex);
-                                case "java.lang.Long", "long" -> args.checklong(argIndex);
-                                case "org.luaj.vm2.LuaTable" -> args.checktable(argIndex);
-                                case "org.luaj.vm2.LuaFunction" -> args.checkfunction(argIndex);
-                                case "org.luaj.vm2.LuaValue" -> args.arg(argIndex);
-                                case "java.lang.Object" -> luaToJava(args.arg(argIndex));
-                                default -> argumentTypes[i].getName().startsWith("[") ? luaVarargToJava(args, argIndex, argumentTypes[i]) : args.checkuserdata(argIndex, argumentTypes[i]);
-                            };
+                            actualArgs[i] = converters[i].convert(LuaTypeManager.this, args, argIndex);
                         } catch (LuaError err) {
                             String expectedType = FiguraDocsManager.getNameFor(argumentTypes[i]);
                             String actualType;
@@ -175,23 +247,26 @@ public class LuaTypeManager {
                             throw new LuaError("Invalid argument " + argIndex + " to function " + method.getName() + ". Expected " + expectedType + ", but got " + actualType);
                         }
                     } else {
-                        actualArgs[i] = switch (argumentTypes[i].getName()) {
-                            case "double" -> 0D;
-                            case "int" -> 0;
-                            case "long" -> 0L;
-                            case "float" -> 0f;
-                            case "boolean" -> false;
-                            default -> null;
-                        };
+                        actualArgs[i] = defaultArgs[i];
                     }
                 }
 
                 // Invoke the wrapped method
                 Object result;
-                try {
-                    result = method.invoke(caller, actualArgs);
-                } catch (IllegalAccessException | InvocationTargetException e) {
-                    throw e.getCause() instanceof LuaError l ? l : new LuaError(e.getCause());
+                if (invoker != null) {
+                    try {
+                        result = (Object) invoker.invokeExact(caller, actualArgs);
+                    } catch (LuaError e) {
+                        throw e;
+                    } catch (Throwable e) {
+                        throw new LuaError(e);
+                    }
+                } else {
+                    try {
+                        result = method.invoke(caller, actualArgs);
+                    } catch (IllegalAccessException | InvocationTargetException e) {
+                        throw e.getCause() instanceof LuaError l ? l : new LuaError(e.getCause());
+                    }
                 }
 
                 // Convert the return value
@@ -0,0 +1,56 @@
+package org.figuramc.figura.lua;
+
+import net.minecraft.nbt.CollectionTag;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.Tag;
+import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Varargs;
+
+/**
+ * Lua table view of a compound or collection tag, filled only once it is first accessed
+ * children compounds and collections are views too, so only the parts of the tag a script actually reads get converted
+ */
+public class NbtLuaTable extends LuaTable {
+
+    private Tag tag;
+    private final boolean readOnly;
+
+    public NbtLuaTable(Tag tag, boolean readOnly) {
+        this.tag = tag;
+        this.readOnly = readOnly;
+    }
+
+    private void load() {
+        Tag tag = this.tag;
+        if (tag == null)
+            return;
+        this.tag = null;
+
+        if (tag instanceof CompoundTag compound) {
+            presize(0, compound.size());
+            for (String key : compound.getAllKeys())
+                super.rawset(LuaValue.valueOf(key), NbtToLua.view(compound.get(key), readOnly));
+        } else if (tag instanceof CollectionTag<?> collection) {
+            presize(collection.size(), 0);
+            int i = 1;
+            for (Tag child : collection)
+                super.rawset(i++, NbtToLua.view(child, readOnly));
+        }
+    }
+
+    // -- read -- //
+
+    public LuaValue rawget(int key) { load(); return super.rawget(key); }
+    public LuaValue rawget(LuaValue key) { load(); return super.rawget(key); }
+    public Varargs next(LuaValue key) { load(); return super.next(key); }
+    public int rawlen() { load(); return super.rawlen(); }
+
+    // -- write -- //
+
+    public LuaValue setmetatable(LuaValue metatable) { if (readOnly) return error("table is read-only"); load(); return super.setmetatable(metatable); }
+    public void set(int key, LuaValue value) { if (readOnly) error("table is read-only"); load(); super.set(key, value); }
+    public void rawset(int key, LuaValue value) { if (readOnly) error("table is read-only"); load(); super.rawset(key, value); }
+    public void rawset(LuaValue key, LuaValue value) { if (readOnly) error("table is read-only"); load(); super.rawset(key, value); }
+    public LuaValue remove(int pos) { if (readOnly) return error("table is read-only"); load(); return super.remove(pos); }
+}
@@ -48,6 +48,15 @@ public class NbtToLua {
         return table;
     }
 
+    /**
+     * Like {@link #convert}, but compounds and collections are only converted once the script accesses them
+     */
+    public static LuaValue view(Tag tag, boolean readOnly) {
+        if (tag instanceof CompoundTag || tag instanceof CollectionTag<?>)
+            return new NbtLuaTable(tag, readOnly);
+        return convert(tag);
+    }
+
     public static LuaValue convert(Tag tag) {
         if (tag == null)
             return null;
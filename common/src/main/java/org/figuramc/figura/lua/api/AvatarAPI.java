@@ -8,7 +8,7 @@ import org.figuramc.figura.avatar.Avatar;
 import org.figuramc.figura.avatar.Badges;
 import org.figuramc.figura.lua.LuaNotNil;
 import org.figuramc.figura.lua.LuaWhitelist;
-import org.figuramc.figura.lua.NbtToLua;
+import org.figuramc.figura.lua.NbtLuaTable;
 import org.figuramc.figura.lua.docs.LuaMethodDoc;
 import org.figuramc.figura.lua.docs.LuaMethodOverload;
 import org.figuramc.figura.lua.docs.LuaTypeDoc;
@@ -45,7 +45,7 @@ public class AvatarAPI {
     @LuaWhitelist
     @LuaMethodDoc("avatar.get_nbt")
     public LuaTable getNBT() {
-        return (LuaTable) NbtToLua.convert(avatar.nbt);
+        return avatar.nbt != null ? new NbtLuaTable(avatar.nbt, false) : null;
     }
 
     @LuaWhitelist
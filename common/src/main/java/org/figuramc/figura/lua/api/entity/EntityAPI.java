@@ -19,7 +19,7 @@ import net.minecraft.world.phys.Vec3;
 import org.figuramc.figura.avatar.Avatar;
 import org.figuramc.figura.avatar.AvatarManager;
 import org.figuramc.figura.lua.LuaWhitelist;
-import org.figuramc.figura.lua.NbtToLua;
+import org.figuramc.figura.lua.NbtLuaTable;
 import org.figuramc.figura.lua.ReadOnlyLuaTable;
 import org.figuramc.figura.lua.api.world.ItemStackAPI;
 import org.figuramc.figura.lua.docs.LuaMetamethodDoc;
@@ -360,7 +360,7 @@ public class EntityAPI<T extends Entity> {
         checkEntity();
         CompoundTag tag = new CompoundTag();
         entity.saveWithoutId(tag);
-        return (LuaTable) NbtToLua.convert(tag);
+        return new NbtLuaTable(tag, false);
     }
 
     @LuaWhitelist
@@ -89,29 +89,30 @@ public class EventsAPI {
     public final LuaEvent RESOURCE_RELOAD = new LuaEvent();
 
     private final Map<String, LuaEvent> events = new HashMap<>();
-    
+    private final LuaEvent[] builtinEvents = new LuaEvent[EventType.values().length];
+
     public EventsAPI() {
-        events.put("ENTITY_INIT", ENTITY_INIT);
-        events.put("TICK", TICK);
-        events.put("WORLD_TICK", WORLD_TICK);
-        events.put("RENDER", RENDER);
-        events.put("POST_RENDER", POST_RENDER);
-        events.put("WORLD_RENDER", WORLD_RENDER);
-        events.put("POST_WORLD_RENDER", POST_WORLD_RENDER);
-        events.put("CHAT_SEND_MESSAGE", CHAT_SEND_MESSAGE);
-        events.put("CHAT_RECEIVE_MESSAGE", CHAT_RECEIVE_MESSAGE);
-        events.put("SKULL_RENDER", SKULL_RENDER);
-        events.put("MOUSE_SCROLL", MOUSE_SCROLL);
-        events.put("MOUSE_MOVE", MOUSE_MOVE);
-        events.put("MOUSE_PRESS", MOUSE_PRESS);
-        events.put("KEY_PRESS", KEY_PRESS);
-        events.put("CHAR_TYPED", CHAR_TYPED);
-        events.put("USE_ITEM", USE_ITEM);
-        events.put("ARROW_RENDER", ARROW_RENDER);
-        events.put("TRIDENT_RENDER", TRIDENT_RENDER);
-        events.put("ITEM_RENDER", ITEM_RENDER);
-        events.put("ON_PLAY_SOUND", ON_PLAY_SOUND);
-        events.put("RESOURCE_RELOAD", RESOURCE_RELOAD);
+        put(EventType.ENTITY_INIT, ENTITY_INIT);
+        put(EventType.TICK, TICK);
+        put(EventType.WORLD_TICK, WORLD_TICK);
+        put(EventType.RENDER, RENDER);
+        put(EventType.POST_RENDER, POST_RENDER);
+        put(EventType.WORLD_RENDER, WORLD_RENDER);
+        put(EventType.POST_WORLD_RENDER, POST_WORLD_RENDER);
+        put(EventType.CHAT_SEND_MESSAGE, CHAT_SEND_MESSAGE);
+        put(EventType.CHAT_RECEIVE_MESSAGE, CHAT_RECEIVE_MESSAGE);
+        put(EventType.SKULL_RENDER, SKULL_RENDER);
+        put(EventType.MOUSE_SCROLL, MOUSE_SCROLL);
+        put(EventType.MOUSE_MOVE, MOUSE_MOVE);
+        put(EventType.MOUSE_PRESS, MOUSE_PRESS);
+        put(EventType.KEY_PRESS, KEY_PRESS);
+        put(EventType.CHAR_TYPED, CHAR_TYPED);
+        put(EventType.USE_ITEM, USE_ITEM);
+        put(EventType.ARROW_RENDER, ARROW_RENDER);
+        put(EventType.TRIDENT_RENDER, TRIDENT_RENDER);
+        put(EventType.ITEM_RENDER, ITEM_RENDER);
+        put(EventType.ON_PLAY_SOUND, ON_PLAY_SOUND);
+        put(EventType.RESOURCE_RELOAD, RESOURCE_RELOAD);
 
         for (FiguraEvent entrypoint : ENTRYPOINTS) {
             String ID = entrypoint.getID().toUpperCase(Locale.US);
@@ -122,6 +123,11 @@ public class EventsAPI {
         }
     }
 
+    private void put(EventType type, LuaEvent event) {
+        events.put(type.name(), event);
+        builtinEvents[type.ordinal()] = event;
+    }
+
     private static final List<FiguraEvent> ENTRYPOINTS = new ArrayList<>();
     public static void initEntryPoints(Set<FiguraEvent> set) {
         ENTRYPOINTS.addAll(set);
@@ -134,6 +140,10 @@ public class EventsAPI {
         return events;
     }
 
+    public LuaEvent get(EventType type) {
+        return builtinEvents[type.ordinal()];
+    }
+
     @LuaWhitelist
     @LuaMetamethodDoc(overloads = @LuaMetamethodOverload(
             types = {LuaEvent.class, EventsAPI.class, String.class},
@@ -156,4 +166,29 @@ public class EventsAPI {
     public String toString() {
         return "EventsAPI";
     }
+
+    // built-in events, resolved by index instead of by name
+    public enum EventType {
+        ENTITY_INIT,
+        TICK,
+        WORLD_TICK,
+        RENDER,
+        POST_RENDER,
+        WORLD_RENDER,
+        POST_WORLD_RENDER,
+        CHAT_SEND_MESSAGE,
+        CHAT_RECEIVE_MESSAGE,
+        SKULL_RENDER,
+        MOUSE_SCROLL,
+        MOUSE_MOVE,
+        MOUSE_PRESS,
+        KEY_PRESS,
+        CHAR_TYPED,
+        USE_ITEM,
+        ARROW_RENDER,
+        TRIDENT_RENDER,
+        ITEM_RENDER,
+        ON_PLAY_SOUND,
+        RESOURCE_RELOAD
+    }
 }
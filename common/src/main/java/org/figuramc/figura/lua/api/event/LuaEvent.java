@@ -11,9 +11,10 @@ import org.figuramc.figura.lua.docs.LuaMethodOverload;
 import org.figuramc.figura.lua.docs.LuaTypeDoc;
 import org.luaj.vm2.LuaError;
 import org.luaj.vm2.LuaFunction;
-import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaValue;
 import org.luaj.vm2.Varargs;
 
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedDeque;
@@ -34,6 +35,14 @@ public class LuaEvent {
     private final Deque<LuaFunction> removalQueue = new ConcurrentLinkedDeque<>();
     private final HashMultimap<String, LuaFunction> names = HashMultimap.create();
 
+    // functions to call, only rebuilt when the queues change
+    private volatile LuaFunction[] snapshot = new LuaFunction[0];
+    private volatile boolean dirty;
+
+    // reused between calls to collect the returned values
+    private LuaValue[] buffer = new LuaValue[8];
+    private int bufferSize;
+
     public LuaEvent() {
         this(false);
     }
@@ -44,6 +53,10 @@ public class LuaEvent {
 
     // Add all waiting functions from the queues
     protected void flushQueue() {
+        if (!dirty)
+            return;
+        dirty = false;
+
         for (LuaFunction function : removalQueue)
             functions.removeFirstOccurrence(function);
         removalQueue.clear();
@@ -51,6 +64,17 @@ public class LuaEvent {
         for (LuaFunction function : queue)
             functions.addLast(function);
         queue.clear();
+
+        snapshot = functions.toArray(new LuaFunction[0]);
+    }
+
+    // Whether calling this event would run anything at all
+    public boolean hasListeners() {
+        return snapshot.length > 0 || !queue.isEmpty();
+    }
+
+    public boolean isPiped() {
+        return piped;
     }
 
     // Calls all the functions in the order they were registered, using the given args for all calls.
@@ -58,21 +82,53 @@ public class LuaEvent {
     public Varargs call(Varargs args) {
         flushQueue();
 
+        LuaFunction[] functions = snapshot;
         if (piped)
-            return callPiped(args);
+            return callPiped(functions, args);
 
-        LuaTable result = new LuaTable();
-        for (LuaFunction function : functions) {
-            FiguraMod.pushProfiler(function.name());
-            Varargs val = function.invoke(args);
-            for (int i = 0; i < val.narg(); i++)
-                result.insert(0, val.arg(i + 1));
+        // most events only have a single function, which can return its values as they are
+        Varargs single = null;
+        if (functions.length == 1) {
+            FiguraMod.pushProfiler(functions[0].name());
+            single = functions[0].invoke(args);
             FiguraMod.popProfiler();
+            if (single.narg() == 0 || (single.narg() == 1 && !single.arg1().isnil()))
+                return single;
+        }
+
+        // values are appended to the shared buffer, after whatever an outer call of this event already collected
+        int start = bufferSize;
+        try {
+            if (single != null) {
+                collect(single);
+            } else {
+                for (LuaFunction function : functions) {
+                    FiguraMod.pushProfiler(function.name());
+                    collect(function.invoke(args));
+                    FiguraMod.popProfiler();
+                }
+            }
+            return bufferSize == start ? LuaValue.NONE : LuaValue.varargsOf(Arrays.copyOfRange(buffer, start, bufferSize));
+        } finally {
+            Arrays.fill(buffer, start, bufferSize, null);
+            bufferSize = start;
+        }
+    }
+
+    // appends all non-nil values to the buffer
+    private void collect(Varargs val) {
+        int count = val.narg();
+        for (int i = 1; i <= count; i++) {
+            LuaValue value = val.arg(i);
+            if (value.isnil())
+                continue;
+            if (bufferSize == buffer.length)
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            buffer[bufferSize++] = value;
         }
-        return result.unpack();
     }
 
-    private Varargs callPiped(Varargs args) {
+    private Varargs callPiped(LuaFunction[] functions, Varargs args) {
         Varargs vars = args;
         for (LuaFunction function : functions) {
             FiguraMod.pushProfiler(function.name());
@@ -100,6 +156,7 @@ public class LuaEvent {
         if (__len() >= MAX_FUNCTIONS)
             throw new LuaError("Reached maximum limit of " + MAX_FUNCTIONS + " functions in one event!");
         queue.addLast(func);
+        dirty = true;
         if (name != null)
             names.put(name, func);
         return this;
@@ -112,6 +169,8 @@ public class LuaEvent {
         queue.clear();
         removalQueue.clear();
         names.clear();
+        snapshot = new LuaFunction[0];
+        dirty = false;
     }
 
     @LuaWhitelist
@@ -132,6 +191,7 @@ public class LuaEvent {
         flushQueue();
         if (toRemove instanceof LuaFunction func) {
             removalQueue.add(func);
+            dirty = true;
             names.values().remove(func);
             return 1;
         } else if (toRemove instanceof String name) {
@@ -142,6 +202,7 @@ public class LuaEvent {
                 if (removalQueue.add(function))
                     removed++;
             }
+            dirty |= removed > 0;
 
             return removed;
         } else {
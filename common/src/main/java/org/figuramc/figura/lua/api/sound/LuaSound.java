@@ -73,6 +73,10 @@ public class LuaSound {
         return id;
     }
 
+    public Avatar getOwner() {
+        return owner;
+    }
+
     private float calculateVolume() {
         return SoundAPI.getSoundEngine().figura$getVolume(SoundSource.PLAYERS) * (owner.permissions.get(Permissions.VOLUME) / 100f);
     }
@@ -27,8 +27,7 @@ import net.minecraft.world.level.material.Fluid;
 import net.minecraft.world.phys.AABB;
 import net.minecraft.world.phys.shapes.VoxelShape;
 import org.figuramc.figura.lua.LuaWhitelist;
-import org.figuramc.figura.lua.NbtToLua;
-import org.figuramc.figura.lua.ReadOnlyLuaTable;
+import org.figuramc.figura.lua.NbtLuaTable;
 import org.figuramc.figura.lua.docs.LuaFieldDoc;
 import org.figuramc.figura.lua.docs.LuaMethodDoc;
 import org.figuramc.figura.lua.docs.LuaMethodOverload;
@@ -64,7 +63,7 @@ public class BlockStateAPI {
         this.id = BuiltInRegistries.BLOCK.getKey(blockstate.getBlock()).toString();
 
         CompoundTag tag = NbtUtils.writeBlockState(blockstate);
-        this.properties = new ReadOnlyLuaTable(tag.contains("Properties") ? NbtToLua.convert(tag.get("Properties")) : new LuaTable());
+        this.properties = new NbtLuaTable(tag.contains("Properties") ? tag.get("Properties") : new CompoundTag(), true);
     }
 
     protected BlockPos getBlockPos() {
@@ -289,7 +288,7 @@ public class BlockStateAPI {
     @LuaMethodDoc("blockstate.get_entity_data")
     public LuaTable getEntityData() {
         BlockEntity entity = WorldAPI.getCurrentWorld().getBlockEntity(getBlockPos());
-        return (LuaTable) NbtToLua.convert(entity != null ? entity.saveWithoutMetadata() : null);
+        return entity != null ? new NbtLuaTable(entity.saveWithoutMetadata(), false) : null;
     }
 
     @LuaWhitelist
@@ -26,11 +26,17 @@ public abstract class ParticleEngineMixin implements ParticleEngineAccessor {
     @Shadow public abstract void add(Particle particle);
 
     @Unique private final HashMap<Particle, UUID> particleMap = new HashMap<>();
+    @Unique private final HashMap<UUID, Set<Particle>> particlesByOwner = new HashMap<>();
 
     // This fixes a conflict with Optifine having slightly different args + it should be more stable in general, capturing Locals is bad practice
     @ModifyVariable(method = "tickParticleList", at = @At(value = "INVOKE", target = "Ljava/util/Iterator;remove()V", ordinal = 0))
     private Particle tickParticleList(Particle particle) {
-        particleMap.remove(particle);
+        UUID owner = particleMap.remove(particle);
+        if (owner != null) {
+            Set<Particle> particles = particlesByOwner.get(owner);
+            if (particles != null && particles.remove(particle) && particles.isEmpty())
+                particlesByOwner.remove(owner);
+        }
         return particle;
     }
 
@@ -42,22 +48,36 @@ public abstract class ParticleEngineMixin implements ParticleEngineAccessor {
     @Override @Intrinsic
     public void figura$spawnParticle(Particle particle, UUID owner) {
         particleMap.put(particle, owner);
+        particlesByOwner.computeIfAbsent(owner, uuid -> new HashSet<>()).add(particle);
         this.add(particle);
     }
 
     @Override @Intrinsic
     public void figura$clearParticles(UUID owner) {
-        Iterator<Map.Entry<Particle, UUID>> iterator = particleMap.entrySet().iterator();
-        while (iterator.hasNext()) {
-            Map.Entry<Particle, UUID> entry = iterator.next();
-            if ((owner == null || entry.getValue().equals(owner))) {
-                if (entry.getKey() != null)
-                    entry.getKey().remove();
-                iterator.remove();
-            }
+        if (owner == null) {
+            for (Particle particle : particleMap.keySet())
+                particle.remove();
+            particleMap.clear();
+            particlesByOwner.clear();
+            return;
+        }
+
+        Set<Particle> particles = particlesByOwner.remove(owner);
+        if (particles == null)
+            return;
+
+        for (Particle particle : particles) {
+            particle.remove();
+            particleMap.remove(particle);
         }
     }
 
+    @Override @Intrinsic
+    public int figura$getParticleCount(UUID owner) {
+        Set<Particle> particles = particlesByOwner.get(owner);
+        return particles == null ? 0 : particles.size();
+    }
+
     @Override @Intrinsic
     public SpriteSet figura$getParticleSprite(ResourceLocation particleID) {
         return spriteSets.get(particleID);
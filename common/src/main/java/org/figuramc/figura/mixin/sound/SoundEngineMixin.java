@@ -45,7 +45,10 @@ public abstract class SoundEngineMixin implements SoundEngineAccessor {
     @Unique
     private ChannelAccess figuraChannel;
     @Unique
-    private final List<LuaSound> figuraHandlers = Collections.synchronizedList(new ArrayList<>());
+    private final Set<LuaSound> figuraHandlers = new LinkedHashSet<>();
+    // owner -> sound name -> sounds, guarded by figuraHandlers
+    @Unique
+    private final Map<UUID, Map<String, Set<LuaSound>>> figuraHandlersByOwner = new HashMap<>();
 
     @Inject(at = @At("RETURN"), method = "<init>")
     private void soundEngineInit(SoundManager soundManager, Options options, ResourceProvider resourceProvider, CallbackInfo ci) {
@@ -59,17 +62,22 @@ public abstract class SoundEngineMixin implements SoundEngineAccessor {
 
     @Inject(at = @At("RETURN"), method = "tickNonPaused")
     private void tickNonPaused(CallbackInfo ci) {
-        Iterator<LuaSound> iterator = figuraHandlers.iterator();
-        while (iterator.hasNext()) {
-            LuaSound sound = iterator.next();
-            ChannelAccess.ChannelHandle handle = sound.getHandle();
-            if (handle == null) {
-                iterator.remove();
-            } else if (getVolume(SoundSource.PLAYERS) <= 0f) {
-                handle.execute(Channel::stop);
-                iterator.remove();
-            } else if (handle.isStopped()) {
-                iterator.remove();
+        synchronized (figuraHandlers) {
+            Iterator<LuaSound> iterator = figuraHandlers.iterator();
+            while (iterator.hasNext()) {
+                LuaSound sound = iterator.next();
+                ChannelAccess.ChannelHandle handle = sound.getHandle();
+                if (handle == null) {
+                    iterator.remove();
+                    figura$unindex(sound);
+                } else if (getVolume(SoundSource.PLAYERS) <= 0f) {
+                    handle.execute(Channel::stop);
+                    iterator.remove();
+                    figura$unindex(sound);
+                } else if (handle.isStopped()) {
+                    iterator.remove();
+                    figura$unindex(sound);
+                }
             }
         }
     }
@@ -94,8 +102,10 @@ public abstract class SoundEngineMixin implements SoundEngineAccessor {
         if (!this.loaded || category != SoundSource.PLAYERS)
             return;
 
-        for (LuaSound sound : figuraHandlers)
-            sound.volume(sound.getVolume());
+        synchronized (figuraHandlers) {
+            for (LuaSound sound : figuraHandlers)
+                sound.volume(sound.getVolume());
+        }
     }
 
     @Inject(at = @At("RETURN"), method = "stop(Lnet/minecraft/resources/ResourceLocation;Lnet/minecraft/sounds/SoundSource;)V")
@@ -137,7 +147,14 @@ public abstract class SoundEngineMixin implements SoundEngineAccessor {
 
     @Override @Intrinsic
     public void figura$addSound(LuaSound sound) {
-        figuraHandlers.add(sound);
+        synchronized (figuraHandlers) {
+            if (figuraHandlers.add(sound)) {
+                figuraHandlersByOwner
+                        .computeIfAbsent(sound.getOwner().owner, uuid -> new HashMap<>())
+                        .computeIfAbsent(sound.getId(), id -> new LinkedHashSet<>())
+                        .add(sound);
+            }
+        }
         for (SoundEventListener listener : this.listeners) {
             if (listener instanceof SubtitleOverlay overlay)
                 ((SubtitleOverlayAccessor) overlay).figura$PlaySound(sound);
@@ -149,23 +166,60 @@ public abstract class SoundEngineMixin implements SoundEngineAccessor {
         if (!this.loaded)
             return;
 
-        Iterator<LuaSound> iterator = figuraHandlers.iterator();
-        while (iterator.hasNext()) {
-            LuaSound sound = iterator.next();
-            ChannelHandleAccessor accessor = (ChannelHandleAccessor) sound.getHandle();
-            if (accessor != null && (owner == null || (accessor.getOwner().equals(owner) && (name == null || accessor.getName().equals(name))))) {
-                sound.stop();
-                iterator.remove();
+        List<LuaSound> sounds = new ArrayList<>();
+        synchronized (figuraHandlers) {
+            if (owner == null) {
+                sounds.addAll(figuraHandlers);
+            } else {
+                Map<String, Set<LuaSound>> byName = figuraHandlersByOwner.get(owner);
+                if (byName == null)
+                    return;
+                if (name == null) {
+                    for (Set<LuaSound> set : byName.values())
+                        sounds.addAll(set);
+                } else if (byName.containsKey(name)) {
+                    sounds.addAll(byName.get(name));
+                }
+            }
+
+            // sounds that were never given a handle are left alone
+            sounds.removeIf(sound -> sound.getHandle() == null);
+            for (LuaSound sound : sounds) {
+                figuraHandlers.remove(sound);
+                figura$unindex(sound);
             }
         }
+
+        for (LuaSound sound : sounds)
+            sound.stop();
+    }
+
+    @Unique
+    private void figura$unindex(LuaSound sound) {
+        UUID owner = sound.getOwner().owner;
+        Map<String, Set<LuaSound>> byName = figuraHandlersByOwner.get(owner);
+        if (byName == null)
+            return;
+
+        Set<LuaSound> sounds = byName.get(sound.getId());
+        if (sounds != null && sounds.remove(sound) && sounds.isEmpty()) {
+            byName.remove(sound.getId());
+            if (byName.isEmpty())
+                figuraHandlersByOwner.remove(owner);
+        }
     }
 
     @Override @Intrinsic
     public void figura$stopAllSounds() {
         if (this.loaded) {
-            for (LuaSound sound : figuraHandlers)
+            List<LuaSound> sounds;
+            synchronized (figuraHandlers) {
+                sounds = new ArrayList<>(figuraHandlers);
+                figuraHandlers.clear();
+                figuraHandlersByOwner.clear();
+            }
+            for (LuaSound sound : sounds)
                 sound.stop();
-            figuraHandlers.clear();
             figuraChannel.clear();
         }
     }
@@ -195,11 +249,34 @@ public abstract class SoundEngineMixin implements SoundEngineAccessor {
     public boolean figura$isPlaying(UUID owner) {
         if (!this.loaded)
             return false;
-        for (LuaSound sound : List.copyOf(figuraHandlers)) {
-            ChannelHandleAccessor accessor = (ChannelHandleAccessor) sound.getHandle();
-            if (sound.isPlaying() && accessor != null && accessor.getOwner().equals(owner))
+
+        List<LuaSound> sounds = new ArrayList<>();
+        synchronized (figuraHandlers) {
+            Map<String, Set<LuaSound>> byName = figuraHandlersByOwner.get(owner);
+            if (byName == null)
+                return false;
+            for (Set<LuaSound> set : byName.values())
+                sounds.addAll(set);
+        }
+
+        for (LuaSound sound : sounds) {
+            if (sound.getHandle() != null && sound.isPlaying())
                 return true;
         }
         return false;
     }
+
+    @Override @Intrinsic
+    public int figura$getSoundCount(UUID owner) {
+        synchronized (figuraHandlers) {
+            Map<String, Set<LuaSound>> byName = figuraHandlersByOwner.get(owner);
+            if (byName == null)
+                return 0;
+
+            int count = 0;
+            for (Set<LuaSound> set : byName.values())
+                count += set.size();
+            return count;
+        }
+    }
 }
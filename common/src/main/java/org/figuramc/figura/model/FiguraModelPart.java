@@ -15,6 +15,7 @@ import org.figuramc.figura.math.vector.FiguraVec2;
 import org.figuramc.figura.math.vector.FiguraVec3;
 import org.figuramc.figura.model.rendering.ImmediateAvatarRenderer;
 import org.figuramc.figura.model.rendering.Vertex;
+import org.figuramc.figura.model.rendering.VertexArray;
 import org.figuramc.figura.model.rendering.texture.FiguraTexture;
 import org.figuramc.figura.model.rendering.texture.FiguraTextureSet;
 import org.figuramc.figura.model.rendering.texture.RenderTypes;
@@ -40,6 +41,7 @@ public class FiguraModelPart implements Comparable<FiguraModelPart> {
 
     public final PartCustomization customization;
     public PartCustomization savedCustomization;
+    private PartCustomization savedCustomizationStorage;
     public ParentType parentType = ParentType.None;
     public PartCustomization playerCustomization;
 
@@ -59,7 +61,7 @@ public class FiguraModelPart implements Comparable<FiguraModelPart> {
 
     public final FiguraMat4 savedPartToWorldMat = FiguraMat4.of().scale(1 / 16d, 1 / 16d, 1 / 16d);
 
-    public final Map<Integer, List<Vertex>> vertices;
+    public final Map<Integer, VertexArray> vertices;
 
     @LuaWhitelist
     @LuaFieldDoc("model_part.pre_render")
@@ -71,7 +73,7 @@ public class FiguraModelPart implements Comparable<FiguraModelPart> {
     @LuaFieldDoc("model_part.post_render")
     public LuaFunction postRender; // after children
 
-    public FiguraModelPart(Avatar owner, String name, PartCustomization customization, Map<Integer, List<Vertex>> vertices, List<FiguraModelPart> children) {
+    public FiguraModelPart(Avatar owner, String name, PartCustomization customization, Map<Integer, VertexArray> vertices, List<FiguraModelPart> children) {
         this.owner = owner;
         this.name = name;
         this.customization = customization;
@@ -89,14 +91,10 @@ public class FiguraModelPart implements Comparable<FiguraModelPart> {
         return true;
     }
 
-    private Map<Integer, List<Vertex>> copyVertices() {
-        Map<Integer, List<Vertex>> map = new HashMap<>();
-        for (Map.Entry<Integer, List<Vertex>> entry : vertices.entrySet()) {
-            List<Vertex> list = new ArrayList<>();
-            for (Vertex vertex : entry.getValue())
-                list.add(vertex.copy());
-            map.put(entry.getKey(), list);
-        }
+    private Map<Integer, VertexArray> copyVertices() {
+        Map<Integer, VertexArray> map = new HashMap<>();
+        for (Map.Entry<Integer, VertexArray> entry : vertices.entrySet())
+            map.put(entry.getKey(), entry.getValue().copy());
         return map;
     }
 
@@ -165,6 +163,14 @@ public class FiguraModelPart implements Comparable<FiguraModelPart> {
         }
     }
 
+    public void saveCustomization(PartCustomization customization) {
+        // stack frames are reused, so keep our own copy
+        if (savedCustomizationStorage == null)
+            savedCustomizationStorage = new PartCustomization();
+        customization.copyTo(savedCustomizationStorage);
+        savedCustomization = savedCustomizationStorage;
+    }
+
     public void applyExtraTransforms(PartCustomization currentTransforms) {
         if (parentType != ParentType.Camera)
             return;
@@ -238,6 +244,7 @@ public class FiguraModelPart implements Comparable<FiguraModelPart> {
     )
     public FiguraModelPart setPreRender(LuaFunction function) {
         this.preRender = function;
+        owner.renderer.invalidatePartIndex();
         return this;
     }
 
@@ -251,6 +258,7 @@ public class FiguraModelPart implements Comparable<FiguraModelPart> {
     )
     public FiguraModelPart setMidRender(LuaFunction function) {
         this.midRender = function;
+        owner.renderer.invalidatePartIndex();
         return this;
     }
 
@@ -264,6 +272,7 @@ public class FiguraModelPart implements Comparable<FiguraModelPart> {
     )
     public FiguraModelPart setPostRender(LuaFunction function) {
         this.postRender = function;
+        owner.renderer.invalidatePartIndex();
         return this;
     }
 
@@ -1206,6 +1215,8 @@ public class FiguraModelPart implements Comparable<FiguraModelPart> {
 
         if ((oldParent.isSeparate || this.parentType.isSeparate) && oldParent != this.parentType)
             owner.renderer.sortParts();
+        else if (oldParent != this.parentType)
+            owner.renderer.invalidatePartIndex();
 
         this.customization.vanillaVisible = null;
         this.customization.needsMatrixRecalculation = true;
@@ -1382,7 +1393,8 @@ public class FiguraModelPart implements Comparable<FiguraModelPart> {
                 break;
             }
         }
-        return vertices.get(index);
+        VertexArray array = vertices.get(index);
+        return array == null ? null : array.getVertices();
     }
 
     @LuaWhitelist
@@ -1390,8 +1402,8 @@ public class FiguraModelPart implements Comparable<FiguraModelPart> {
     public Map<String, List<Vertex>> getAllVertices() {
         Map<String, List<Vertex>> map = new HashMap<>();
         for (int i = 0; i < textures.size(); i++) {
-            List<Vertex> list = vertices.get(i);
-            if (list != null) map.put(textures.get(i).name, list);
+            VertexArray array = vertices.get(i);
+            if (array != null) map.put(textures.get(i).name, array.getVertices());
         }
         return map;
     }
@@ -1413,6 +1425,7 @@ public class FiguraModelPart implements Comparable<FiguraModelPart> {
         if(part.childCache.get(this.name) == null)
             part.childCache.put(this.name, this);
         this.parent = part;
+        owner.renderer.invalidatePartIndex();
         return this;
     }
 
@@ -1438,6 +1451,7 @@ public class FiguraModelPart implements Comparable<FiguraModelPart> {
         if(this.childCache.get(part.name) == null)
             this.childCache.put(part.name, part);
         part.parent = this;
+        owner.renderer.invalidatePartIndex();
         return this;
     }
 
@@ -1454,6 +1468,7 @@ public class FiguraModelPart implements Comparable<FiguraModelPart> {
             this.children.remove(part);
             this.childCache.remove(part.name);
             part.parent = null;
+            owner.renderer.invalidatePartIndex();
         }
         return this;
     }
@@ -1542,6 +1557,7 @@ public class FiguraModelPart implements Comparable<FiguraModelPart> {
             case "postRender" -> postRender = value;
             default -> throw new LuaError("Cannot assign value on key \"" + key + "\"");
         }
+        owner.renderer.invalidatePartIndex();
     }
 
     @Override
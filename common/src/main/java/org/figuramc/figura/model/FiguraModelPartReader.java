@@ -18,6 +18,7 @@ import org.figuramc.figura.math.vector.FiguraVec2;
 import org.figuramc.figura.math.vector.FiguraVec3;
 import org.figuramc.figura.math.vector.FiguraVec4;
 import org.figuramc.figura.model.rendering.Vertex;
+import org.figuramc.figura.model.rendering.VertexArray;
 import org.figuramc.figura.model.rendering.texture.FiguraTextureSet;
 import org.figuramc.figura.model.rendering.texture.RenderTypes;
 import org.figuramc.figura.utils.MathUtils;
@@ -66,7 +67,7 @@ public class FiguraModelPartReader {
             facesByTexture.add(0);
 
         // Read vertex data
-        Map<Integer, List<Vertex>> vertices = new HashMap<>();
+        Map<Integer, VertexArray> vertices = new HashMap<>();
         if (hasCubeData(partCompound)) {
             readCuboid(facesByTexture, partCompound, vertices);
             customization.partType = PartCustomization.PartType.CUBE;
@@ -82,6 +83,9 @@ public class FiguraModelPartReader {
         if (Configs.FORCE_SMOOTH_AVATAR.value || (smoothNormals && !vertices.isEmpty()))
             smoothfy(vertices);
 
+        for (VertexArray array : vertices.values())
+            array.trim();
+
         // Read children
         ArrayList<FiguraModelPart> children = new ArrayList<>(0);
         if (partCompound.contains("chld")) {
@@ -345,7 +349,7 @@ public class FiguraModelPartReader {
     };
 
 
-    private static void readCuboid(List<Integer> facesByTexture, CompoundTag data, Map<Integer, List<Vertex>> vertices) {
+    private static void readCuboid(List<Integer> facesByTexture, CompoundTag data, Map<Integer, VertexArray> vertices) {
         // Read from and to
         FiguraVec3 from = FiguraVec3.of();
         readVec3(from, data, "f");
@@ -368,7 +372,7 @@ public class FiguraModelPartReader {
             readFace(data.getCompound("cube_data"), facesByTexture, direction, vertices, from, ftDiff);
     }
 
-    private static void readFace(CompoundTag faces, List<Integer> facesByTexture, String direction, Map<Integer, List<Vertex>> vertices, FiguraVec3 from, FiguraVec3 ftDiff) {
+    private static void readFace(CompoundTag faces, List<Integer> facesByTexture, String direction, Map<Integer, VertexArray> vertices, FiguraVec3 from, FiguraVec3 ftDiff) {
         if (faces.contains(direction)) {
             CompoundTag face = faces.getCompound(direction);
             short texId = face.getShort("tex");
@@ -385,19 +389,17 @@ public class FiguraModelPartReader {
 
                 FiguraVec2 normalizedUv = uvValues[(i + rotation) % 4];
 
-                List<Vertex> list = vertices.getOrDefault((int) texId, new ArrayList<>());
-                list.add(new Vertex(
+                vertices.computeIfAbsent((int) texId, key -> new VertexArray()).add(
                         (float) tempPos.x, (float) tempPos.y, (float) tempPos.z,
                         (float) Mth.lerp(normalizedUv.x, uv.x, uv.z),
                         (float) Mth.lerp(normalizedUv.y, uv.y, uv.w),
                         (float) normal.x, (float) normal.y, (float) normal.z
-                ));
-                vertices.put((int) texId, list);
+                );
             }
         }
     }
 
-    private static void readMesh(List<Integer> facesByTexture, CompoundTag data, Map<Integer, List<Vertex>> vertices) {
+    private static void readMesh(List<Integer> facesByTexture, CompoundTag data, Map<Integer, VertexArray> vertices) {
         CompoundTag meshData = data.getCompound("mesh_data");
         // mesh_data:
         // "vtx": List<Float>, xyz
@@ -467,24 +469,21 @@ public class FiguraModelPartReader {
             // p3 now contains the normal vector
 
             // Add the vertex data to the appropriate builder
+            VertexArray array = vertices.computeIfAbsent(texId, key -> new VertexArray());
             for (int j = 0; j < numVerts; j++) {
-                List<Vertex> list = vertices.getOrDefault(texId, new ArrayList<>());
-                list.add(new Vertex(
+                array.add(
                         posArr[3 * j], posArr[3 * j + 1], posArr[3 * j + 2],
                         uvArr[2 * j], uvArr[2 * j + 1],
                         (float) p3.x, (float) p3.y, (float) p3.z
-                ));
-                vertices.put(texId, list);
+                );
             }
             // Add a vertex if necessary
             if (numVerts == 3) {
-                List<Vertex> list = vertices.getOrDefault(texId, new ArrayList<>());
-                list.add(new Vertex(
+                array.add(
                         posArr[6], posArr[7], posArr[8],
                         uvArr[4], uvArr[5],
                         (float) p3.x, (float) p3.y, (float) p3.z
-                ));
-                vertices.put(texId, list);
+                );
             }
 
             // Increment the counters for the vertex and UV lists
@@ -494,11 +493,12 @@ public class FiguraModelPartReader {
     }
 
     // thanks to Scarlet Light#7611
-    private static void smoothfy(Map<Integer, List<Vertex>> verticesByTextuers) {
+    private static void smoothfy(Map<Integer, VertexArray> verticesByTextuers) {
         // separate vertices
         Map<String, List<Vertex>> verticesByPos = new HashMap<>();
-        for (List<Vertex> vertices : verticesByTextuers.values()) {
-            for (Vertex vertex : vertices) {
+        for (VertexArray vertices : verticesByTextuers.values()) {
+            for (int i = 0; i < vertices.size(); i++) {
+                Vertex vertex = vertices.getVertex(i);
                 String id = String.valueOf(vertex.getPos());
                 List<Vertex> list = verticesByPos.computeIfAbsent(id, str -> new ArrayList<>(4));
                 list.add(vertex);
@@ -8,7 +8,9 @@ import org.figuramc.figura.math.vector.FiguraVec3;
 import org.figuramc.figura.model.rendering.texture.FiguraTextureSet;
 import org.figuramc.figura.model.rendering.texture.RenderTypes;
 
-import java.util.Stack;
+import java.util.ArrayList;
+import java.util.EmptyStackException;
+import java.util.List;
 
 public class PartCustomization {
 
@@ -399,32 +401,37 @@ public class PartCustomization {
 
     public static class PartCustomizationStack {
 
-        private final Stack<PartCustomization> stack = new Stack<>() {{
+        // frames are kept and reused by depth, so pushing does not allocate once the stack is warmed up
+        private final List<PartCustomization> frames = new ArrayList<>() {{
             add(new PartCustomization());
         }};
+        private int depth = 0;
 
         public void push(PartCustomization customization) {
+            // grab the frame for the new depth
+            if (++depth == frames.size())
+                frames.add(new PartCustomization());
+            PartCustomization newCustomization = frames.get(depth);
+
             // copy stack
-            PartCustomization newCustomization = new PartCustomization();
-            stack.peek().copyTo(newCustomization);
+            frames.get(depth - 1).copyTo(newCustomization);
 
             // modify
             newCustomization.modify(customization);
-
-            // add
-            stack.push(newCustomization);
         }
 
         public void pop() {
-            stack.pop();
+            if (depth == 0)
+                throw new EmptyStackException();
+            depth--;
         }
 
         public PartCustomization peek() {
-            return stack.peek();
+            return frames.get(depth);
         }
 
         public boolean isEmpty() {
-            return stack.size() == 1;
+            return depth == 0;
         }
     }
 }
@@ -23,10 +23,7 @@ import org.figuramc.figura.model.rendering.texture.FiguraTextureSet;
 import org.joml.Matrix3f;
 import org.joml.Matrix4d;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
@@ -40,6 +37,8 @@ public abstract class AvatarRenderer {
     public FiguraModelPart root;
 
     protected final Map<ParentType, List<FiguraModelPart>> separatedParts = new ConcurrentHashMap<>();
+    // parts each filter scheme has to visit, built when first needed and dropped on structural edits
+    protected final Map<PartFilterScheme, Set<FiguraModelPart>> partIndex = new ConcurrentHashMap<>();
 
     protected boolean isRendering, dirty;
 
@@ -155,6 +154,57 @@ public abstract class AvatarRenderer {
     public void sortParts() {
         separatedParts.clear();
         _sortParts(root);
+        invalidatePartIndex();
+    }
+
+    // called whenever the part tree changes in a way that can change which parts a filter scheme reaches
+    public void invalidatePartIndex() {
+        partIndex.clear();
+    }
+
+    /**
+     * Gets the parts a render pass with the given scheme has to visit
+     * those are the parts the scheme renders, the parts with render functions or saved customizations,
+     * and every ancestor leading to them, any other subtree can be skipped entirely
+     */
+    public Set<FiguraModelPart> getPartIndex(PartFilterScheme scheme) {
+        Set<FiguraModelPart> index = partIndex.get(scheme);
+        if (index != null)
+            return index;
+
+        index = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (scheme.parentType.isSeparate) {
+            List<FiguraModelPart> parts = separatedParts.get(scheme.parentType);
+            if (parts != null) {
+                for (FiguraModelPart part : parts)
+                    _indexParts(scheme, part, scheme.initialValue, index);
+            }
+        } else if (root != null) {
+            _indexParts(scheme, root, scheme.initialValue, index);
+        }
+
+        partIndex.put(scheme, index);
+        return index;
+    }
+
+    private boolean _indexParts(PartFilterScheme scheme, FiguraModelPart part, boolean prevPredicate, Set<FiguraModelPart> index) {
+        Boolean passed = scheme.test(part.parentType, prevPredicate);
+
+        // pruned, but render layers still save the parent customization
+        if (passed == null) {
+            if (!part.parentType.isRenderLayer)
+                return false;
+            index.add(part);
+            return true;
+        }
+
+        boolean needed = passed || part.preRender != null || part.midRender != null || part.postRender != null;
+        for (FiguraModelPart child : part.children)
+            needed |= _indexParts(scheme, child, passed, index);
+
+        if (needed)
+            index.add(part);
+        return needed;
     }
 
     private void _sortParts(FiguraModelPart part) {
@@ -34,10 +34,17 @@ import java.util.function.Consumer;
 public class ImmediateAvatarRenderer extends AvatarRenderer {
 
     protected final PartCustomization.PartCustomizationStack customizationStack = new PartCustomization.PartCustomizationStack();
+    protected Set<FiguraModelPart> currentPartIndex;
 
     public static final FiguraMat4 VIEW_TO_WORLD_MATRIX = FiguraMat4.of();
     private static final PartCustomization pivotOffsetter = new PartCustomization();
     protected static final VertexBuffer VERTEX_BUFFER = new VertexBuffer();
+    // never modified, so resolved textures can keep comparing them by identity across frames
+    private static final TextureCustomization PRIMARY_TEXTURE = new TextureCustomization(FiguraTextureSet.OverrideType.PRIMARY, null);
+    private static final TextureCustomization SECONDARY_TEXTURE = new TextureCustomization(FiguraTextureSet.OverrideType.SECONDARY, null);
+
+    // skin, cape and elytra of the owner, looked up once per pass
+    private final EnumMap<FiguraTextureSet.OverrideType, ResourceLocation> playerTextures = new EnumMap<>(FiguraTextureSet.OverrideType.class);
 
     public ImmediateAvatarRenderer(Avatar avatar) {
         super(avatar);
@@ -48,6 +55,13 @@ public class ImmediateAvatarRenderer extends AvatarRenderer {
         sortParts();
     }
 
+    @Override
+    public void invalidatePartIndex() {
+        super.invalidatePartIndex();
+        // edited while rendering, so visit everything for the rest of this pass
+        currentPartIndex = null;
+    }
+
     public void checkEmpty() {
         if (!customizationStack.isEmpty())
             throw new IllegalStateException("Customization stack not empty!");
@@ -96,6 +110,9 @@ public class ImmediateAvatarRenderer extends AvatarRenderer {
         doIrisEmissiveFix = (irisConfig >= 2 && ClientAPI.hasShaderPack()) || (avatar.renderMode != EntityRenderMode.RENDER && avatar.renderMode != EntityRenderMode.WORLD);
         offsetRenderLayers = irisConfig >= 1;
 
+        // player textures can change at any time
+        playerTextures.clear();
+
         // custom textures
         for (FiguraTextureSet set : textureSets)
             set.uploadIfNeeded();
@@ -117,6 +134,9 @@ public class ImmediateAvatarRenderer extends AvatarRenderer {
         int prev = avatar.complexity.remaining;
         int[] remainingComplexity = new int[] {prev};
 
+        // only visit the parts this scheme can reach
+        currentPartIndex = getPartIndex(currentFilterScheme);
+
         // render all model parts
         if (root.customization.visible == null || root.customization.visible) {
             if (currentFilterScheme.parentType.isSeparate) {
@@ -194,13 +214,17 @@ public class ImmediateAvatarRenderer extends AvatarRenderer {
         customization.alpha = alpha;
         customization.overlay = overlay;
 
-        customization.primaryTexture = new TextureCustomization(FiguraTextureSet.OverrideType.PRIMARY, null);
-        customization.secondaryTexture = new TextureCustomization(FiguraTextureSet.OverrideType.SECONDARY, null);
+        customization.primaryTexture = PRIMARY_TEXTURE;
+        customization.secondaryTexture = SECONDARY_TEXTURE;
 
         return customization;
     }
 
     protected boolean renderPart(FiguraModelPart part, int[] remainingComplexity, boolean prevPredicate) {
+        // nothing in this subtree renders with the current scheme
+        if (currentPartIndex != null && !currentPartIndex.contains(part))
+            return true;
+
         FiguraMod.pushProfiler(part.name);
 
         PartCustomization custom = part.customization;
@@ -210,7 +234,7 @@ public class ImmediateAvatarRenderer extends AvatarRenderer {
         Boolean thisPassedPredicate = currentFilterScheme.test(part.parentType, prevPredicate);
         if (thisPassedPredicate == null || (custom.visible != null && !custom.visible)) {
             if (part.parentType.isRenderLayer)
-                part.savedCustomization = customizationStack.peek();
+                part.saveCustomization(customizationStack.peek());
             FiguraMod.popProfiler(2);
             return true;
         }
@@ -457,15 +481,16 @@ public class ImmediateAvatarRenderer extends AvatarRenderer {
         FiguraMod.popProfiler(2);
     }
 
-    public void pushFaces(int faceCount, int[] remainingComplexity, FiguraTextureSet textureSet, List<Vertex> vertices) {
+    public void pushFaces(int faceCount, int[] remainingComplexity, FiguraTextureSet textureSet, VertexArray vertices) {
         // Handle cases that we can quickly
-        if (faceCount == 0 || vertices.isEmpty())
+        if (faceCount == 0 || vertices.size() == 0)
             return;
 
-        PartCustomization customization = customizationStack.peek();
+        // the vertices are pushed after this frame is popped, so use a snapshot of it
+        PartCustomization customization = VERTEX_BUFFER.snapshot(customizationStack.peek());
 
-        VertexData primary = getTexture(customization, textureSet, true);
-        VertexData secondary = getTexture(customization, textureSet, false);
+        ResolvedTexture primary = getTexture(customization, textureSet, vertices, true);
+        ResolvedTexture secondary = getTexture(customization, textureSet, vertices, false);
 
         if (primary.renderType == null && secondary.renderType == null) {
             remainingComplexity[0] += faceCount;
@@ -473,27 +498,27 @@ public class ImmediateAvatarRenderer extends AvatarRenderer {
         }
 
         if (primary.renderType != null)
-            pushToBuffer(faceCount, primary, customization, textureSet, vertices);
+            pushToBuffer(faceCount, primary, true, customization, textureSet, vertices);
         if (secondary.renderType != null)
-            pushToBuffer(faceCount, secondary, customization, textureSet, vertices);
+            pushToBuffer(faceCount, secondary, false, customization, textureSet, vertices);
     }
 
-    private VertexData getTexture(PartCustomization customization, FiguraTextureSet textureSet, boolean primary) {
+    private ResolvedTexture getTexture(PartCustomization customization, FiguraTextureSet textureSet, VertexArray vertices, boolean primary) {
         RenderTypes types = primary ? customization.getPrimaryRenderType() : customization.getSecondaryRenderType();
         TextureCustomization texture = primary ? customization.primaryTexture : customization.secondaryTexture;
-        VertexData ret = new VertexData();
 
-        if (types == RenderTypes.NONE)
+        // reuse the last resolved render type when nothing that goes into it changed
+        FiguraTextureSet.OverrideType type = texture == null ? null : texture.getOverrideType();
+        boolean player = type == FiguraTextureSet.OverrideType.SKIN || type == FiguraTextureSet.OverrideType.CAPE || type == FiguraTextureSet.OverrideType.ELYTRA;
+        ResourceLocation playerTexture = player ? getPlayerTexture(textureSet, texture) : null;
+        int flags = (translucent ? 1 : 0) | (glowing ? 2 : 0) | (offsetRenderLayers ? 4 : 0) | (doIrisEmissiveFix ? 8 : 0);
+
+        ResolvedTexture ret = vertices.getResolved(primary);
+        if (ret.update(texture, types, flags, playerTexture) || types == RenderTypes.NONE)
             return ret;
 
         // get texture
-        ResourceLocation id = textureSet.getOverrideTexture(avatar.owner, texture);
-
-        // color
-        ret.color = primary ? customization.color : customization.color2;
-
-        // primary
-        ret.primary = primary;
+        ResourceLocation id = player ? playerTexture : textureSet.getOverrideTexture(avatar.owner, texture);
 
         // get render type
         if (id != null) {
@@ -524,54 +549,85 @@ public class ImmediateAvatarRenderer extends AvatarRenderer {
         return ret;
     }
 
+    private ResourceLocation getPlayerTexture(FiguraTextureSet textureSet, TextureCustomization texture) {
+        FiguraTextureSet.OverrideType type = texture.getOverrideType();
+        if (playerTextures.containsKey(type))
+            return playerTextures.get(type);
+
+        ResourceLocation id = textureSet.getOverrideTexture(avatar.owner, texture);
+        playerTextures.put(type, id);
+        return id;
+    }
+
     private static final FiguraVec4 pos = FiguraVec4.of();
     private static final FiguraVec3 normal = FiguraVec3.of();
     private static final FiguraVec3 uv = FiguraVec3.of(0, 0, 1);
-    private void pushToBuffer(int faceCount, VertexData vertexData, PartCustomization customization, FiguraTextureSet textureSet, List<Vertex> vertices) {
+    private void pushToBuffer(int faceCount, ResolvedTexture resolved, boolean primary, PartCustomization customization, FiguraTextureSet textureSet, VertexArray vertices) {
         int vertCount = faceCount * 4;
+        float[] data = vertices.getData();
+
+        // the resolved texture is shared by later pushes of these vertices, so copy what is needed once this is consumed
+        float vertexOffset = resolved.vertexOffset;
+        FiguraVec3 color = primary ? customization.color : customization.color2;
 
         FiguraVec3 uvFixer = FiguraVec3.of();
         uvFixer.set(textureSet.getWidth(), textureSet.getHeight(), 1); // Dividing by this makes uv 0 to 1
 
         int overlay = customization.overlay;
-        int light = vertexData.fullBright ? LightTexture.FULL_BRIGHT : customization.light;
-
-        VERTEX_BUFFER.getBufferFor(vertexData.renderType, vertexData.primary, vertexConsumer -> {
-            for (int i = 0; i < vertCount; i++) {
-                Vertex vertex = vertices.get(i);
-
-                pos.set(vertex.x, vertex.y, vertex.z, 1);
-                pos.transform(customization.positionMatrix);
-                pos.add(pos.normalized().scale(vertexData.vertexOffset));
-                normal.set(vertex.nx, vertex.ny, vertex.nz);
-                normal.transform(customization.normalMatrix);
-                uv.set(vertex.u, vertex.v, 1);
-                uv.divide(uvFixer);
-                uv.transform(customization.uvMatrix);
+        int light = resolved.fullBright ? LightTexture.FULL_BRIGHT : customization.light;
+
+        VERTEX_BUFFER.getBufferFor(resolved.renderType, primary, vertexConsumer -> {
+            // only transform the vertices again if something changed since they were last pushed
+            TransformedVertices transformed = vertices.getTransformed(primary);
+            if (!transformed.update(customization, vertexOffset, textureSet.getWidth(), textureSet.getHeight(), vertCount, vertices.getVersion())) {
+                float[] out = transformed.data;
+                for (int i = 0, j = 0, k = 0; i < vertCount; i++, j += VertexArray.STRIDE, k += TransformedVertices.STRIDE) {
+                    pos.set(data[j], data[j + 1], data[j + 2], 1);
+                    pos.transform(customization.positionMatrix);
+                    pos.add(pos.normalized().scale(vertexOffset));
+                    normal.set(data[j + 5], data[j + 6], data[j + 7]);
+                    normal.transform(customization.normalMatrix);
+                    uv.set(data[j + 3], data[j + 4], 1);
+                    uv.divide(uvFixer);
+                    uv.transform(customization.uvMatrix);
+
+                    out[k] = (float) pos.x; out[k + 1] = (float) pos.y; out[k + 2] = (float) pos.z;
+                    out[k + 3] = (float) uv.x; out[k + 4] = (float) uv.y;
+                    out[k + 5] = (float) normal.x; out[k + 6] = (float) normal.y; out[k + 7] = (float) normal.z;
+                }
+            }
 
+            float[] out = transformed.data;
+            float r = (float) color.x;
+            float g = (float) color.y;
+            float b = (float) color.z;
+            float a = customization.alpha;
+            for (int i = 0, k = 0; i < vertCount; i++, k += TransformedVertices.STRIDE) {
                 vertexConsumer
-                        .vertex(pos.x, pos.y, pos.z)
-                        .color((float) vertexData.color.x, (float) vertexData.color.y, (float) vertexData.color.z, customization.alpha)
-                        .uv((float) uv.x, (float) uv.y)
+                        .vertex(out[k], out[k + 1], out[k + 2])
+                        .color(r, g, b, a)
+                        .uv(out[k + 3], out[k + 4])
                         .overlayCoords(overlay)
                         .uv2(light)
-                        .normal((float) normal.x, (float) normal.y, (float) normal.z)
+                        .normal(out[k + 5], out[k + 6], out[k + 7])
                         .endVertex();
             }
         });
     }
 
-    private static class VertexData {
-        public RenderType renderType;
-        public boolean fullBright;
-        public float vertexOffset;
-        public FiguraVec3 color;
-        public boolean primary;
-    }
-
     private static class VertexBuffer {
         private final HashMap<RenderType, List<Consumer<VertexConsumer>>> primaryBuffers = new LinkedHashMap<>();
         private final HashMap<RenderType, List<Consumer<VertexConsumer>>> secondaryBuffers = new LinkedHashMap<>();
+        private final List<PartCustomization> snapshots = new ArrayList<>();
+        private int snapshotCount = 0;
+
+        public PartCustomization snapshot(PartCustomization customization) {
+            if (snapshotCount == snapshots.size())
+                snapshots.add(new PartCustomization());
+            PartCustomization snapshot = snapshots.get(snapshotCount++);
+            customization.copyTo(snapshot);
+            return snapshot;
+        }
 
         public void getBufferFor(RenderType renderType, boolean primary, Consumer<VertexConsumer> consumer) {
             HashMap<RenderType, List<Consumer<VertexConsumer>>> buffer = primary ? primaryBuffers : secondaryBuffers;
@@ -588,6 +644,10 @@ public class ImmediateAvatarRenderer extends AvatarRenderer {
                     consumer.accept(vertexConsumer);
             }
             map.clear();
+
+            // every pending consumer is done, so the snapshots can be reused
+            if (primaryBuffers.isEmpty() && secondaryBuffers.isEmpty())
+                snapshotCount = 0;
         }
     }
 }
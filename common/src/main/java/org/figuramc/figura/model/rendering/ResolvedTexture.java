@@ -0,0 +1,46 @@
+package org.figuramc.figura.model.rendering;
+
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.resources.ResourceLocation;
+import org.figuramc.figura.model.TextureCustomization;
+import org.figuramc.figura.model.rendering.texture.RenderTypes;
+
+import java.util.Objects;
+
+/**
+ * Holds the render type last resolved for a {@link VertexArray}, together with everything that went into resolving it
+ * texture customizations are replaced instead of modified, so they are compared by identity
+ */
+public class ResolvedTexture {
+
+    private TextureCustomization texture;
+    private RenderTypes types;
+    private int flags;
+    private ResourceLocation playerTexture;
+    private boolean valid = false;
+
+    public RenderType renderType;
+    public boolean fullBright;
+    public float vertexOffset;
+
+    /**
+     * Compares the given render state against the one used for the resolved data, and stores it
+     * @return true when the resolved data can be reused, otherwise it is reset and must be resolved again
+     */
+    public boolean update(TextureCustomization texture, RenderTypes types, int flags, ResourceLocation playerTexture) {
+        boolean same = valid && this.texture == texture && this.types == types && this.flags == flags && Objects.equals(this.playerTexture, playerTexture);
+        if (same)
+            return true;
+
+        this.texture = texture;
+        this.types = types;
+        this.flags = flags;
+        this.playerTexture = playerTexture;
+        this.valid = true;
+
+        this.renderType = null;
+        this.fullBright = false;
+        this.vertexOffset = 0;
+        return false;
+    }
+}
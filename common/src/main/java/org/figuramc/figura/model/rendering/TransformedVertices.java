@@ -0,0 +1,62 @@
+package org.figuramc.figura.model.rendering;
+
+import org.figuramc.figura.math.matrix.FiguraMat3;
+import org.figuramc.figura.math.matrix.FiguraMat4;
+import org.figuramc.figura.model.PartCustomization;
+
+/**
+ * Holds the last transformed vertices of a {@link VertexArray}, together with
+ * everything that went into transforming them
+ * if none of that changed since the last frame, the data can be pushed as is
+ * color, alpha, light and overlay are constant per push, so they are not part of the cached data
+ */
+public class TransformedVertices {
+
+    // position (3) + uv (2) + normal (3)
+    public static final int STRIDE = 8;
+    private static final int KEY_SIZE = 16 + 9 + 9 + 5;
+
+    private final double[] key = new double[KEY_SIZE];
+    private boolean valid = false;
+    public float[] data = new float[0];
+
+    /**
+     * Compares the given render state against the one used for the cached data, and stores it
+     * @return true when the cached data can be reused
+     */
+    public boolean update(PartCustomization customization, float vertexOffset, int uvWidth, int uvHeight, int vertCount, int version) {
+        int i = 0;
+        boolean same = valid;
+
+        FiguraMat4 pos = customization.positionMatrix;
+        same &= set(i++, pos.v11) & set(i++, pos.v12) & set(i++, pos.v13) & set(i++, pos.v14);
+        same &= set(i++, pos.v21) & set(i++, pos.v22) & set(i++, pos.v23) & set(i++, pos.v24);
+        same &= set(i++, pos.v31) & set(i++, pos.v32) & set(i++, pos.v33) & set(i++, pos.v34);
+        same &= set(i++, pos.v41) & set(i++, pos.v42) & set(i++, pos.v43) & set(i++, pos.v44);
+
+        FiguraMat3 normal = customization.normalMatrix;
+        same &= set(i++, normal.v11) & set(i++, normal.v12) & set(i++, normal.v13);
+        same &= set(i++, normal.v21) & set(i++, normal.v22) & set(i++, normal.v23);
+        same &= set(i++, normal.v31) & set(i++, normal.v32) & set(i++, normal.v33);
+
+        FiguraMat3 uv = customization.uvMatrix;
+        same &= set(i++, uv.v11) & set(i++, uv.v12) & set(i++, uv.v13);
+        same &= set(i++, uv.v21) & set(i++, uv.v22) & set(i++, uv.v23);
+        same &= set(i++, uv.v31) & set(i++, uv.v32) & set(i++, uv.v33);
+
+        same &= set(i++, vertexOffset) & set(i++, uvWidth) & set(i++, uvHeight) & set(i++, vertCount) & set(i, version);
+
+        if (data.length != vertCount * STRIDE)
+            data = new float[vertCount * STRIDE];
+
+        valid = true;
+        return same;
+    }
+
+    private boolean set(int index, double value) {
+        if (key[index] == value)
+            return true;
+        key[index] = value;
+        return false;
+    }
+}
@@ -8,6 +8,8 @@ import org.figuramc.figura.math.vector.FiguraVec2;
 import org.figuramc.figura.math.vector.FiguraVec3;
 import org.figuramc.figura.utils.LuaUtils;
 
+import java.util.Arrays;
+
 @LuaWhitelist
 @LuaTypeDoc(
         name = "Vertex",
@@ -15,24 +17,66 @@ import org.figuramc.figura.utils.LuaUtils;
 )
 public class Vertex {
 
-    public float x, y, z;
-    public float u, v;
-    public float nx, ny, nz;
+    // backing data, laid out as in a VertexArray
+    private final VertexArray owner;
+    private final float[] data;
+    private final int offset;
 
     public Vertex(float x, float y, float z, float u, float v, float nx, float ny, float nz) {
-        this.x = x; this.y = y; this.z = z;
-        this.u = u; this.v = v;
-        this.nx = nx; this.ny = ny; this.nz = nz;
+        this(null, new float[] {x, y, z, u, v, nx, ny, nz}, 0);
+    }
+
+    Vertex(VertexArray owner, float[] data, int offset) {
+        this.owner = owner;
+        this.data = data;
+        this.offset = offset;
     }
 
     public Vertex copy() {
-        return new Vertex(x, y, z, u, v, nx, ny, nz);
+        return new Vertex(null, Arrays.copyOfRange(data, offset, offset + VertexArray.STRIDE), 0);
+    }
+
+    private void markDirty() {
+        if (owner != null)
+            owner.markDirty();
+    }
+
+    public float x() {
+        return data[offset];
+    }
+
+    public float y() {
+        return data[offset + 1];
+    }
+
+    public float z() {
+        return data[offset + 2];
+    }
+
+    public float u() {
+        return data[offset + 3];
+    }
+
+    public float v() {
+        return data[offset + 4];
+    }
+
+    public float nx() {
+        return data[offset + 5];
+    }
+
+    public float ny() {
+        return data[offset + 6];
+    }
+
+    public float nz() {
+        return data[offset + 7];
     }
 
     @LuaWhitelist
     @LuaMethodDoc("vertex.get_pos")
     public FiguraVec3 getPos() {
-        return FiguraVec3.of(x, y, z);
+        return FiguraVec3.of(x(), y(), z());
     }
 
     @LuaWhitelist
@@ -52,9 +96,10 @@ public class Vertex {
     )
     public Vertex setPos(Object x, Double y, Double z) {
         FiguraVec3 vec = LuaUtils.parseVec3("setPos", x, y, z);
-        this.x = (float) vec.x;
-        this.y = (float) vec.y;
-        this.z = (float) vec.z;
+        data[offset] = (float) vec.x;
+        data[offset + 1] = (float) vec.y;
+        data[offset + 2] = (float) vec.z;
+        markDirty();
         return this;
     }
 
@@ -66,7 +111,7 @@ public class Vertex {
     @LuaWhitelist
     @LuaMethodDoc("vertex.get_uv")
     public FiguraVec2 getUV() {
-        return FiguraVec2.of(u, v);
+        return FiguraVec2.of(u(), v());
     }
 
     @LuaWhitelist
@@ -86,8 +131,9 @@ public class Vertex {
     )
     public Vertex setUV(Object x, Double y) {
         FiguraVec2 vec = LuaUtils.parseVec2("setUV", x, y);
-        this.u = (float) vec.x;
-        this.v = (float) vec.y;
+        data[offset + 3] = (float) vec.x;
+        data[offset + 4] = (float) vec.y;
+        markDirty();
         return this;
     }
 
@@ -99,7 +145,7 @@ public class Vertex {
     @LuaWhitelist
     @LuaMethodDoc("vertex.get_normal")
     public FiguraVec3 getNormal() {
-        return FiguraVec3.of(nx, ny, nz);
+        return FiguraVec3.of(nx(), ny(), nz());
     }
 
     @LuaWhitelist
@@ -124,9 +170,10 @@ public class Vertex {
     }
 
     public void setNormal(FiguraVec3 vec) {
-        this.nx = (float) vec.x;
-        this.ny = (float) vec.y;
-        this.nz = (float) vec.z;
+        data[offset + 5] = (float) vec.x;
+        data[offset + 6] = (float) vec.y;
+        data[offset + 7] = (float) vec.z;
+        markDirty();
     }
 
     @LuaWhitelist
@@ -0,0 +1,105 @@
+package org.figuramc.figura.model.rendering;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Packed vertex storage for a single texture of a model part
+ * each vertex takes {@link #STRIDE} floats, in the order x, y, z, u, v, nx, ny, nz
+ * the lua {@link Vertex} objects are only created when requested, as views onto this array
+ */
+public class VertexArray {
+
+    public static final int STRIDE = 8;
+
+    private float[] data;
+    private int size;
+    private List<Vertex> views;
+
+    // bumped whenever the vertex data changes, so transformed copies know when to update
+    private int version;
+    private TransformedVertices primaryTransformed, secondaryTransformed;
+    private ResolvedTexture primaryResolved, secondaryResolved;
+
+    public VertexArray() {
+        this(4);
+    }
+
+    public VertexArray(int capacity) {
+        this.data = new float[Math.max(capacity, 1) * STRIDE];
+    }
+
+    private VertexArray(float[] data, int size) {
+        this.data = data;
+        this.size = size;
+    }
+
+    public void add(float x, float y, float z, float u, float v, float nx, float ny, float nz) {
+        if (views != null)
+            throw new IllegalStateException("Cannot add vertices after creating views");
+
+        int i = size * STRIDE;
+        if (i + STRIDE > data.length)
+            data = Arrays.copyOf(data, data.length * 2);
+
+        data[i] = x; data[i + 1] = y; data[i + 2] = z;
+        data[i + 3] = u; data[i + 4] = v;
+        data[i + 5] = nx; data[i + 6] = ny; data[i + 7] = nz;
+        size++;
+        version++;
+    }
+
+    // drops the unused capacity left over from loading
+    public void trim() {
+        if (views == null && data.length != size * STRIDE)
+            data = Arrays.copyOf(data, size * STRIDE);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public float[] getData() {
+        return data;
+    }
+
+    // a new, uncached, view onto the given vertex
+    public Vertex getVertex(int index) {
+        return new Vertex(this, data, index * STRIDE);
+    }
+
+    public List<Vertex> getVertices() {
+        if (views == null) {
+            trim();
+            views = new ArrayList<>(size);
+            for (int i = 0; i < size; i++)
+                views.add(getVertex(i));
+        }
+        return views;
+    }
+
+    public void markDirty() {
+        version++;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public TransformedVertices getTransformed(boolean primary) {
+        if (primary)
+            return primaryTransformed == null ? primaryTransformed = new TransformedVertices() : primaryTransformed;
+        return secondaryTransformed == null ? secondaryTransformed = new TransformedVertices() : secondaryTransformed;
+    }
+
+    public ResolvedTexture getResolved(boolean primary) {
+        if (primary)
+            return primaryResolved == null ? primaryResolved = new ResolvedTexture() : primaryResolved;
+        return secondaryResolved == null ? secondaryResolved = new ResolvedTexture() : secondaryResolved;
+    }
+
+    public VertexArray copy() {
+        return new VertexArray(Arrays.copyOf(data, size * STRIDE), size);
+    }
+}
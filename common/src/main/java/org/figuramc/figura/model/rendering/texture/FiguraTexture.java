@@ -57,6 +57,11 @@ public class FiguraTexture extends SimpleTexture {
     private NativeImage backup;
     private boolean isClosed = false;
 
+    // pixels changed since the last upload, and since the backup was taken
+    private final Region changed = new Region(), modifiedRegion = new Region();
+    // the size the gpu storage was allocated with, for the texture id it was allocated for
+    private int allocatedId = -1, allocatedWidth, allocatedHeight;
+
     public FiguraTexture(Avatar owner, String name, byte[] data) {
         super(new FiguraIdentifier("avatar_tex/" + owner.owner + "/" + UUID.randomUUID()));
 
@@ -119,10 +124,31 @@ public class FiguraTexture extends SimpleTexture {
         if (dirty && !isClosed) {
             dirty = false;
 
+            // only the changed region needs uploading, once the gpu storage exists
+            int x = changed.minX, y = changed.minY, width = changed.maxX - x, height = changed.maxY - y;
+            boolean empty = changed.isEmpty();
+            changed.clear();
+
             RenderCall runnable = () -> {
-                // Upload texture to GPU.
-                TextureUtil.prepareImage(this.getId(), texture.getWidth(), texture.getHeight());
-                texture.upload(0, 0, 0, false);
+                if (isClosed)
+                    return;
+
+                int id = this.getId();
+                int w = texture.getWidth(), h = texture.getHeight();
+                if (id != allocatedId || w != allocatedWidth || h != allocatedHeight) {
+                    // Upload texture to GPU.
+                    TextureUtil.prepareImage(id, w, h);
+                    texture.upload(0, 0, 0, false);
+                    allocatedId = id;
+                    allocatedWidth = w;
+                    allocatedHeight = h;
+                    owner.textureUploadBytes += (long) w * h * texture.format().components();
+                } else if (!empty) {
+                    // glTexSubImage2D of only the changed pixels
+                    this.bind();
+                    texture.upload(0, x, y, x, y, width, height, false, false);
+                    owner.textureUploadBytes += (long) width * height * texture.format().components();
+                }
             };
 
             if (RenderSystem.isOnRenderThreadOrInit()) {
@@ -224,6 +250,7 @@ public class FiguraTexture extends SimpleTexture {
         try {
             backupImage();
             texture.setPixelRGBA(x, y, ColorUtils.rgbaToIntABGR(parseColor("setPixel", r, g, b, a)));
+            markChanged(x, y, 1, 1);
             return this;
         } catch (Exception e) {
             throw new LuaError(e.getMessage());
@@ -255,7 +282,12 @@ public class FiguraTexture extends SimpleTexture {
     public FiguraTexture fill(int x, int y, int width, int height, Object r, Double g, Double b, Double a) {
         try {
             backupImage();
-            texture.fillRect(x, y, width, height, ColorUtils.rgbaToIntABGR(parseColor("fill", r, g, b, a)));
+            try {
+                texture.fillRect(x, y, width, height, ColorUtils.rgbaToIntABGR(parseColor("fill", r, g, b, a)));
+            } finally {
+                // an out of bounds fill still changed the pixels before it failed
+                markChanged(x, y, width, height);
+            }
             return this;
         } catch (Exception e) {
             throw new LuaError(e.getMessage());
@@ -275,6 +307,8 @@ public class FiguraTexture extends SimpleTexture {
         if (modified) {
             this.texture.copyFrom(backup);
             this.modified = false;
+            changed.add(modifiedRegion);
+            modifiedRegion.clear();
         }
         return this;
     }
@@ -336,6 +370,12 @@ public class FiguraTexture extends SimpleTexture {
         return this;
     }
 
+    private void markChanged(int x, int y, int width, int height) {
+        int w = texture.getWidth(), h = texture.getHeight();
+        changed.add(x, y, width, height, w, h);
+        modifiedRegion.add(x, y, width, height, w, h);
+    }
+
     @LuaWhitelist
     public Object __index(String arg) {
         return "name".equals(arg) ? name : null;
@@ -345,4 +385,36 @@ public class FiguraTexture extends SimpleTexture {
     public String toString() {
         return name + " (" + getWidth() + "x" + getHeight() + ") (Texture)";
     }
+
+    // bounding box of changed pixels, max exclusive
+    private static class Region {
+        private int minX, minY, maxX, maxY;
+
+        private boolean isEmpty() {
+            return maxX <= minX || maxY <= minY;
+        }
+
+        private void add(int x, int y, int width, int height, int clampWidth, int clampHeight) {
+            int x0 = Math.max(x, 0), y0 = Math.max(y, 0);
+            int x1 = (int) Math.min((long) x + width, clampWidth), y1 = (int) Math.min((long) y + height, clampHeight);
+            if (x1 <= x0 || y1 <= y0)
+                return;
+
+            if (isEmpty()) {
+                minX = x0; minY = y0; maxX = x1; maxY = y1;
+            } else {
+                minX = Math.min(minX, x0); minY = Math.min(minY, y0);
+                maxX = Math.max(maxX, x1); maxY = Math.max(maxY, y1);
+            }
+        }
+
+        private void add(Region other) {
+            if (!other.isEmpty())
+                add(other.minX, other.minY, other.maxX - other.minX, other.maxY - other.minY, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        }
+
+        private void clear() {
+            minX = minY = maxX = maxY = 0;
+        }
+    }
 }
\ No newline at end of file
@@ -65,12 +65,12 @@ public class SpriteTask extends RenderTask {
 
         // create vertices
         for (Vertex v : vertices) {
-            consumer.vertex(pose, v.x, v.y, v.z)
+            consumer.vertex(pose, v.x(), v.y(), v.z())
                     .color(r, g, b, a)
-                    .uv(v.u, v.v)
+                    .uv(v.u(), v.v())
                     .overlayCoords(newOverlay)
                     .uv2(newLight)
-                    .normal(normal, v.nx, v.ny, v.nz)
+                    .normal(normal, v.nx(), v.ny(), v.nz())
                     .endVertex();
         }
     }
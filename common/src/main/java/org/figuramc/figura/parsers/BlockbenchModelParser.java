@@ -17,15 +17,12 @@ import java.util.regex.Pattern;
 
 //main class to convert a blockbench model (json) into nbt
 //default fields are omitted from the nbt to save up space
-//note: use the same instance for parsing multiple models for the same avatar
+//note: every model is parsed with texture and animation ids starting at zero, see ModelData#withOffsets
+//instances hold the state of a single parse, so models can be parsed in parallel using one instance each
 public class BlockbenchModelParser {
 
     private final static Gson GSON = new GsonBuilder().create();
 
-    //offsets for usage of diverse models
-    private int textureOffset = 0;
-    private int animationOffset = 0;
-
     //used during the parser
     private final HashMap<String, CompoundTag> elementMap = new HashMap<>();
     private final HashMap<String, ListTag> animationMap = new HashMap<>();
@@ -194,7 +191,7 @@ public class BlockbenchModelParser {
             //generate the texture data
             if (!textureMap.containsKey(name)) {
                 //id is generated by the position of the name in the list
-                int id = textureIndex.indexOf(name) + textureOffset;
+                int id = textureIndex.indexOf(name);
 
                 //fix texture size for more speed
                 float[] fixedSize;
@@ -214,7 +211,6 @@ public class BlockbenchModelParser {
         for (Map.Entry<String, CompoundTag> entry : texturesTemp.entrySet())
             data.add(entry.getValue());
 
-        textureOffset += data.size();
         texturesNbt.put("src", src);
         texturesNbt.put("data", data);
     }
@@ -384,13 +380,13 @@ public class BlockbenchModelParser {
         return nbt;
     }
 
-    private static final FiguraVec3
+    private final FiguraVec3
             v1 = FiguraVec3.of(),
             v2 = FiguraVec3.of(),
             v3 = FiguraVec3.of(),
             v4 = FiguraVec3.of();
 
-    private static void reorderVertices(String[] vertexNames, Map<String, Integer> nameToIndex, ListTag vertices) {
+    private void reorderVertices(String[] vertexNames, Map<String, Integer> nameToIndex, ListTag vertices) {
         //Fill in v1, v2, v3, v4 from the given vertices
         readVectors(vertexNames, nameToIndex, vertices);
 
@@ -407,7 +403,7 @@ public class BlockbenchModelParser {
 
     }
 
-    private static void readVectors(String[] vertexNames, Map<String, Integer> nameToIndex, ListTag vertices) {
+    private void readVectors(String[] vertexNames, Map<String, Integer> nameToIndex, ListTag vertices) {
         int i = nameToIndex.get(vertexNames[0]);
         v1.set(vertices.getFloat(3*i), vertices.getFloat(3*i+1), vertices.getFloat(3*i+2));
         i = nameToIndex.get(vertexNames[1]);
@@ -418,7 +414,7 @@ public class BlockbenchModelParser {
         v4.set(vertices.getFloat(3 * i), vertices.getFloat(3 * i + 1), vertices.getFloat(3 * i + 2));
     }
 
-    private static final FiguraVec3
+    private final FiguraVec3
             t1 = FiguraVec3.of(),
             t2 = FiguraVec3.of(),
             t3 = FiguraVec3.of(),
@@ -427,7 +423,7 @@ public class BlockbenchModelParser {
     /**
      * Checks whether the two points given are on opposite sides of the line given.
      */
-    private static boolean testOppositeSides(FiguraVec3 linePoint1, FiguraVec3 linePoint2, FiguraVec3 point1, FiguraVec3 point2) {
+    private boolean testOppositeSides(FiguraVec3 linePoint1, FiguraVec3 linePoint2, FiguraVec3 point1, FiguraVec3 point2) {
         t1.set(linePoint1);
         t2.set(linePoint2);
         t3.set(point1);
@@ -558,7 +554,7 @@ public class BlockbenchModelParser {
                         channels.put("scl", scaleData);
 
                     if (!channels.isEmpty()) {
-                        nbt.putInt("id", i + animationOffset);
+                        nbt.putInt("id", i);
                         nbt.put("data", channels);
                     }
                     if (!nbt.isEmpty())
@@ -572,8 +568,6 @@ public class BlockbenchModelParser {
             list.add(animNbt);
             i++;
         }
-
-        animationOffset += list.size();
     }
 
     private ListTag parseKeyFrameData(JsonObject object, String channel) {
@@ -756,5 +750,49 @@ public class BlockbenchModelParser {
     private record TextureData(int id, float[] fixedSize) {}
 
     //dummy class containing the return object of the parser
-    public record ModelData(CompoundTag textures, List<CompoundTag> animationList, CompoundTag modelNbt) {}
+    public record ModelData(CompoundTag textures, List<CompoundTag> animationList, CompoundTag modelNbt) {
+        public int textureCount() {
+            return textures.getList("data", Tag.TAG_COMPOUND).size();
+        }
+
+        //returns a copy with its texture and animation ids moved after the ones of the models merged before it
+        public ModelData withOffsets(int textureOffset, int animationOffset) {
+            CompoundTag model = modelNbt.copy();
+            offsetIds(model.getList("chld", Tag.TAG_COMPOUND), textureOffset, animationOffset);
+
+            List<CompoundTag> animations = new ArrayList<>(animationList.size());
+            for (CompoundTag animation : animationList)
+                animations.add(animation.copy());
+
+            return new ModelData(textures.copy(), animations, model);
+        }
+
+        private static void offsetIds(ListTag children, int textureOffset, int animationOffset) {
+            for (int i = 0; i < children.size(); i++) {
+                CompoundTag child = children.getCompound(i);
+
+                //cube faces
+                CompoundTag cube = child.getCompound("cube_data");
+                for (String face : cube.getAllKeys()) {
+                    CompoundTag faceNbt = cube.getCompound(face);
+                    faceNbt.putInt("tex", faceNbt.getInt("tex") + textureOffset);
+                }
+
+                //mesh faces, the texture id is stored shifted left 4 bits
+                ListTag texes = child.getCompound("mesh_data").getList("tex", Tag.TAG_SHORT);
+                for (int j = 0; j < texes.size(); j++)
+                    texes.set(j, ShortTag.valueOf((short) (texes.getShort(j) + (textureOffset << 4))));
+
+                //group animations
+                ListTag anims = child.getList("anim", Tag.TAG_COMPOUND);
+                for (int j = 0; j < anims.size(); j++) {
+                    CompoundTag anim = anims.getCompound(j);
+                    if (anim.contains("id"))
+                        anim.putInt("id", anim.getInt("id") + animationOffset);
+                }
+
+                offsetIds(child.getList("chld", Tag.TAG_COMPOUND), textureOffset, animationOffset);
+            }
+        }
+    }
 }
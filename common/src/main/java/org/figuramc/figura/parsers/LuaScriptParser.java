@@ -33,11 +33,8 @@ public class LuaScriptParser {
     private static final Pattern whitespacePlus = Pattern.compile("[ \n]+");
     private static final Pattern nameOops = Pattern.compile("\\w{2}");
 
-    // parsing data
-    private static boolean error;
-
+    // minifiers return null when they fail, so scripts can be parsed from many threads at once
     public static ByteArrayTag parseScript(String name, String script) {
-        error = true;
         String minified = switch (Configs.FORMAT_SCRIPT.value) {
             case 0 -> noMinifier(script);
             case 1 -> regexMinify(name, script);
@@ -46,7 +43,7 @@ public class LuaScriptParser {
             default -> throw new IllegalStateException("Format_SCRIPT should not be %d, expecting 0 to %d".formatted(Configs.FORMAT_SCRIPT.value, Configs.FORMAT_SCRIPT.enumList.size() - 1));
         };
         ByteArrayTag out;
-        if (error) {
+        if (minified == null) {
             FiguraMod.LOGGER.warn("Failed to minify the script, likely to be syntax error");
             out = new ByteArrayTag(script.getBytes(StandardCharsets.UTF_8));
         } else {
@@ -56,7 +53,6 @@ public class LuaScriptParser {
     }
 
     private static String noMinifier(String script) {
-        error = false;
         return script;
     }
 
@@ -80,7 +76,7 @@ public class LuaScriptParser {
                 case '\'', '"' -> {
                     Matcher matcher = string.matcher(builder);
                     if (!matcher.find(i) || !(matcher.start() == i))
-                        return builder.toString();
+                        return null;
 
                     i = matcher.end() - 1;
                 }
@@ -91,7 +87,7 @@ public class LuaScriptParser {
                 }
                 case '-' -> {
                     if (i == builder.length() - 1)
-                        return builder.toString();
+                        return null;
 
                     Matcher multiline = multilineComment.matcher(builder);
                     if (multiline.find(i) && multiline.start() == i) {
@@ -129,13 +125,12 @@ public class LuaScriptParser {
 
         FiguraMod.debug("Script \"{}\" minified from {} chars to {} chars using LIGHT mode", name, script.length(), builder.length());
 
-        error = false;
         return builder.toString();
     }
 
     private static String aggressiveMinify(String name, String script) {
         String start = regexMinify(name, script);
-        if (error) return start;
+        if (start == null) return null;
         StringBuilder builder = new StringBuilder(start);
 
         for (int i = 0; i < builder.length(); i++) {
@@ -175,12 +170,11 @@ public class LuaScriptParser {
             chunk.accept(new NameResolver());
             LuaScriptBuilderVisitor visitor = new LuaScriptBuilderVisitor();
             chunk.accept(visitor);
-            error = false;
             FiguraMod.debug("Script \"{}\" minified from {} chars to {} chars using AST mode", name, script.length(), visitor.length());
 
             return visitor.getString();
         } catch (ParseException e) {
-            return script;
+            return null;
         }
     }
 }
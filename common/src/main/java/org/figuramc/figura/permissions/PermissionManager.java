@@ -37,6 +37,7 @@ public class PermissionManager {
         CATEGORIES.clear();
         PLAYERS.clear();
         init();
+        PermissionPack.markChanged();
     }
 
     public static void initEntryPoints(Set<FiguraPermissions> set) {
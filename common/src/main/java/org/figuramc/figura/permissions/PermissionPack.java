@@ -6,6 +6,7 @@ import net.minecraft.network.chat.MutableComponent;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public abstract class PermissionPack {
 
@@ -17,6 +18,11 @@ public abstract class PermissionPack {
     private final Map<Permissions, Integer> permissions = new HashMap<>();
     private final Map<String, Map<Permissions, Integer>> customPermissions = new HashMap<>();
 
+    // bumped on any permission change, as packs also depend on their category
+    private static final AtomicInteger VERSION = new AtomicInteger();
+    // every resolved value, indexed by permission id
+    private volatile Snapshot snapshot;
+
     // constructors // 
 
     public PermissionPack(String name) {
@@ -54,6 +60,8 @@ public abstract class PermissionPack {
 
             customPermissions.put(key, map);
         }
+
+        markChanged();
     }
 
     // write nbt
@@ -84,6 +92,25 @@ public abstract class PermissionPack {
 
     // get value from permission
     public int get(Permissions permissions) {
+        Snapshot snapshot = this.snapshot;
+        int version = VERSION.get();
+        if (snapshot == null || snapshot.version != version || permissions.id >= snapshot.values.length)
+            this.snapshot = snapshot = buildSnapshot(version);
+        return snapshot.values[permissions.id];
+    }
+
+    private Snapshot buildSnapshot(int version) {
+        int[] values = new int[Permissions.count()];
+        for (int i = 0; i < values.length; i++)
+            values[i] = resolve(Permissions.byId(i));
+        return new Snapshot(version, values);
+    }
+
+    public static void markChanged() {
+        VERSION.incrementAndGet();
+    }
+
+    protected int resolve(Permissions permissions) {
         // get setting
         Integer setting = this.permissions.get(permissions);
         if (setting != null)
@@ -102,12 +129,12 @@ public abstract class PermissionPack {
     public void insert(Permissions permissions, Integer value, String id) {
         if (Permissions.DEFAULT.contains(permissions)) {
             this.permissions.put(permissions, value);
-            return;
+        } else {
+            Map<Permissions, Integer> map = customPermissions.getOrDefault(id, new HashMap<>());
+            map.put(permissions, value);
+            customPermissions.put(id, map);
         }
-
-        Map<Permissions, Integer> map = customPermissions.getOrDefault(id, new HashMap<>());
-        map.put(permissions, value);
-        customPermissions.put(id, map);
+        markChanged();
     }
 
     public boolean hasChanges() {
@@ -139,12 +166,14 @@ public abstract class PermissionPack {
         this.permissions.remove(permissions);
         for (Map<Permissions, Integer> map : customPermissions.values())
             map.remove(permissions);
+        markChanged();
     }
 
     // clear permissions
     public void clear() {
         permissions.clear();
         customPermissions.clear();
+        markChanged();
     }
 
     public boolean isVisible() {
@@ -163,6 +192,8 @@ public abstract class PermissionPack {
         return customPermissions;
     }
 
+    private record Snapshot(int version, int[] values) {}
+
     // -- types -- // 
 
     public static class CategoryPermissionPack extends PermissionPack {
@@ -195,8 +226,8 @@ public abstract class PermissionPack {
         }
 
         @Override
-        public int get(Permissions permissions) {
-            int result = super.get(permissions);
+        protected int resolve(Permissions permissions) {
+            int result = super.resolve(permissions);
             return result != -1 ? result : permissions.getDefault(getCategory());
         }
     }
@@ -228,6 +259,7 @@ public abstract class PermissionPack {
         @Override
         public void setCategory(CategoryPermissionPack newParent) {
             this.category = newParent;
+            markChanged();
         }
 
         @Override
@@ -243,8 +275,8 @@ public abstract class PermissionPack {
         }
 
         @Override
-        public int get(Permissions permissions) {
-            int result = super.get(permissions);
+        protected int resolve(Permissions permissions) {
+            int result = super.resolve(permissions);
             return result != -1 ? result : category.get(permissions);
         }
 
@@ -0,0 +1,80 @@
+package org.figuramc.figura.permissions;
+
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Set of permissions backed by a bitset of their ids
+ */
+public class PermissionSet extends AbstractSet<Permissions> {
+
+    private final BitSet bits = new BitSet();
+
+    @Override
+    public boolean add(Permissions permissions) {
+        if (bits.get(permissions.id))
+            return false;
+        bits.set(permissions.id);
+        return true;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof Permissions permissions) || !bits.get(permissions.id))
+            return false;
+        bits.clear(permissions.id);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Permissions permissions && bits.get(permissions.id);
+    }
+
+    @Override
+    public int size() {
+        return bits.cardinality();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bits.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        bits.clear();
+    }
+
+    @Override
+    public Iterator<Permissions> iterator() {
+        return new Iterator<>() {
+            private int next = bits.nextSetBit(0);
+            private int last = -1;
+
+            @Override
+            public boolean hasNext() {
+                return next >= 0;
+            }
+
+            @Override
+            public Permissions next() {
+                if (next < 0)
+                    throw new NoSuchElementException();
+                last = next;
+                next = bits.nextSetBit(next + 1);
+                return Permissions.byId(last);
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0)
+                    throw new IllegalStateException();
+                bits.clear(last);
+                last = -1;
+            }
+        };
+    }
+}
@@ -8,9 +8,13 @@ import org.figuramc.figura.utils.FiguraText;
 
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class Permissions {
 
+    // every permission, custom ones included, indexed by their id
+    private static final List<Permissions> REGISTRY = new CopyOnWriteArrayList<>();
+
     // default permissions
     public static final Permissions
             INIT_INST = new Permissions("INIT_INST", 0, 524287, 0, 32768, 65536, 262144, Integer.MAX_VALUE),
@@ -70,6 +74,7 @@ public class Permissions {
 
 
     // stuff
+    public final int id;
     public final String name;
     private final List<Integer> defaults;
 
@@ -91,6 +96,7 @@ public class Permissions {
         this(name, sliderMin, sliderMax, 1, blocked, low, def, high, max);
     }
     public Permissions(String name, Integer sliderMin, Integer sliderMax, int stepSize, int blocked, int low, int def, int high, int max) {
+        this.id = register(this);
         this.name = name;
         this.isToggle = sliderMin == null || sliderMax == null;
         this.min = sliderMin;
@@ -99,6 +105,19 @@ public class Permissions {
         this.defaults = List.of(blocked, low, def, high, max);
     }
 
+    private static synchronized int register(Permissions permissions) {
+        REGISTRY.add(permissions);
+        return REGISTRY.size() - 1;
+    }
+
+    public static Permissions byId(int id) {
+        return REGISTRY.get(id);
+    }
+
+    public static int count() {
+        return REGISTRY.size();
+    }
+
     // infinity check :p
     public boolean checkInfinity(int value) {
         return max != null && value > max;